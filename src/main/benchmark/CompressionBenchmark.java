@@ -0,0 +1,54 @@
+package benchmark;
+
+import model.Task;
+import persistence.Compression;
+import persistence.DataManager;
+import persistence.StorageFormat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * Compares save/load throughput and on-disk size of tasks.json stored plain,
+ * gzip-compressed and deflate-compressed.
+ * Usage: {@code CompressionBenchmark [taskCount...]} (default 10,000 100,000 1,000,000).
+ */
+public class CompressionBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int[] counts = args.length == 0 ? new int[]{10_000, 100_000, 1_000_000}
+                : java.util.Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+
+        for (int count : counts) {
+            List<Task> tasks = StorageFormatBenchmark.generate(count, 30);
+            System.out.printf("%,d tasks%n", count);
+
+            long plainSize = 0;
+            for (Compression c : Compression.values()) {
+                File dir = Files.createTempDirectory("kidtask-bench").toFile();
+                DataManager dm = new DataManager(dir, StorageFormat.JSON);
+                dm.setCompression("tasks", c);
+
+                double saveMs = Double.MAX_VALUE, loadMs = Double.MAX_VALUE;
+                for (int run = 0; run < 3; run++) {
+                    long t0 = System.nanoTime();
+                    if (!dm.saveTasks(tasks)) throw new IllegalStateException("Save failed");
+                    saveMs = Math.min(saveMs, (System.nanoTime() - t0) / 1e6);
+
+                    t0 = System.nanoTime();
+                    int n = dm.loadTasks().size();
+                    loadMs = Math.min(loadMs, (System.nanoTime() - t0) / 1e6);
+                    if (n != count) throw new IllegalStateException("Loaded " + n + " of " + count);
+                }
+
+                long size = c.apply(new File(dir, "tasks.json")).length();
+                if (c == Compression.NONE) plainSize = size;
+                System.out.printf("  %-7s: %,12d bytes (%4.1fx)  save %8.1f ms (%6.1f MB/s)  load %8.1f ms (%6.1f MB/s)%n",
+                        c, size, (double) plainSize / size,
+                        saveMs, plainSize / 1e3 / saveMs, loadMs, plainSize / 1e3 / loadMs);
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package benchmark;
+
+import model.IdGenerator;
+import model.Task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Creates tasks with random UUIDs and with {@link IdGenerator} ids, on one
+ * thread and spread over several, and reports throughput and how many ids
+ * arrive in sorted order.
+ * Usage: {@code IdGeneratorBenchmark [taskCount] [threads]} (default 1,000,000 and 4).
+ */
+public class IdGeneratorBenchmark {
+
+    private static final LocalDate DUE = LocalDate.of(2025, 9, 1);
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+
+        Supplier<String> random = () -> UUID.randomUUID().toString();
+        Supplier<String> ordered = IdGenerator::nextId;
+
+        // warm-up
+        create(random, count / 10, 1);
+        create(ordered, count / 10, 1);
+
+        System.out.printf("%,d tasks%n", count);
+        for (int t : new int[]{1, threads}) {
+            report("random UUID", random, count, t);
+            report("time-ordered", ordered, count, t);
+        }
+    }
+
+    private static void report(String name, Supplier<String> ids, int count, int threads) throws Exception {
+        double best = Double.MAX_VALUE;
+        List<Task> tasks = null;
+        for (int run = 0; run < 3; run++) {
+            long t0 = System.nanoTime();
+            tasks = create(ids, count, threads);
+            best = Math.min(best, (System.nanoTime() - t0) / 1e6);
+        }
+        int inOrder = 0;
+        for (int i = 1; i < tasks.size(); i++)
+            if (tasks.get(i - 1).getTaskId().compareTo(tasks.get(i).getTaskId()) < 0) inOrder++;
+        System.out.printf("  %-12s %d thread(s): %8.1f ms  %6.2f M/s  in order %5.1f%%%n",
+                name, threads, best, count / best / 1e3, 100.0 * inOrder / Math.max(1, tasks.size() - 1));
+    }
+
+    /** Each thread fills its own slice; slices are joined in thread order. */
+    private static List<Task> create(Supplier<String> ids, int count, int threads) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<Task>>> parts = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int n = count / threads + (t < count % threads ? 1 : 0);
+                parts.add(pool.submit(() -> {
+                    List<Task> part = new ArrayList<>(n);
+                    for (int i = 0; i < n; i++)
+                        part.add(new Task(ids.get(), "Homework", "", DUE, 10, Task.Status.PENDING, "child1", 0));
+                    return part;
+                }));
+            }
+            List<Task> all = new ArrayList<>(count);
+            for (Future<List<Task>> f : parts) all.addAll(f.get());
+            return all;
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
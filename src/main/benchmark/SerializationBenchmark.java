@@ -0,0 +1,62 @@
+package benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import model.Child;
+import model.Task;
+import model.User;
+import persistence.DataManager;
+import persistence.LocalDateAdapter;
+
+import java.lang.reflect.Type;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Round-trip throughput of the reflective Gson setup against the hand-written
+ * adapters from {@link DataManager#createGson()}.
+ * Usage: {@code SerializationBenchmark [taskCount]} (default 200,000).
+ */
+public class SerializationBenchmark {
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        List<Task> tasks = StorageFormatBenchmark.generate(count, 30);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 30; i++) users.add(new Child("child" + i, "child" + i + "@mail.com", "1234"));
+
+        Gson reflective = new GsonBuilder()
+                .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
+                .create();
+        Gson adapters = DataManager.createGson();
+
+        Type taskList = TypeToken.getParameterized(List.class, Task.class).getType();
+        Type userList = TypeToken.getParameterized(List.class, User.class).getType();
+
+        List<User> back = reflective.fromJson(reflective.toJson(users), userList);
+        System.out.println("reflective restores Child: " + (back.get(0) instanceof Child));
+        back = adapters.fromJson(adapters.toJson(users), userList);
+        System.out.println("adapters restore Child:   " + (back.get(0) instanceof Child));
+
+        double reflectiveMs = bestRoundTripMs(reflective, tasks, taskList);
+        double adapterMs = bestRoundTripMs(adapters, tasks, taskList);
+
+        System.out.printf("%,d tasks, serialize + parse%n", count);
+        System.out.printf("reflective : %8.1f ms  (%,.0f tasks/s)%n", reflectiveMs, count / reflectiveMs * 1000);
+        System.out.printf("adapters   : %8.1f ms  (%,.0f tasks/s)%n", adapterMs, count / adapterMs * 1000);
+        System.out.printf("speed-up   : %.2fx%n", reflectiveMs / adapterMs);
+    }
+
+    private static double bestRoundTripMs(Gson gson, List<Task> tasks, Type type) {
+        double best = Double.MAX_VALUE;
+        for (int run = 0; run < 5; run++) {
+            long t0 = System.nanoTime();
+            List<Task> parsed = gson.fromJson(gson.toJson(tasks, type), type);
+            best = Math.min(best, (System.nanoTime() - t0) / 1e6);
+            if (parsed.size() != tasks.size()) throw new IllegalStateException("Round trip lost tasks");
+        }
+        return best;
+    }
+}
@@ -0,0 +1,76 @@
+package benchmark;
+
+import model.Task;
+import persistence.DataManager;
+import persistence.StorageFormat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares load time and file size of tasks.json against tasks.bin.
+ * Usage: {@code StorageFormatBenchmark [taskCount]} (default 1,000,000).
+ */
+public class StorageFormatBenchmark {
+
+    private static final String[] TITLES = {
+            "Homework", "Clean room", "Piano practice", "Read 20 pages", "Feed the cat",
+            "Math worksheet", "Brush teeth", "Tidy toys", "Spelling test", "Water plants"
+    };
+
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        List<Task> tasks = generate(count, 30);
+
+        File dir = Files.createTempDirectory("kidtask-bench").toFile();
+        DataManager json = new DataManager(dir, StorageFormat.JSON);
+        DataManager binary = new DataManager(dir, StorageFormat.BINARY);
+
+        json.saveTasks(tasks);
+        binary.saveTasks(tasks);
+
+        long jsonSize = new File(dir, "tasks.json").length();
+        long binSize = new File(dir, "tasks.bin").length();
+
+        double jsonMs = bestLoadMs(json, count);
+        double binMs = bestLoadMs(binary, count);
+
+        System.out.printf("%,d tasks%n", count);
+        System.out.printf("JSON   : %,12d bytes  load %8.1f ms%n", jsonSize, jsonMs);
+        System.out.printf("BINARY : %,12d bytes  load %8.1f ms%n", binSize, binMs);
+        System.out.printf("size %.1fx smaller, load %.1fx faster%n",
+                (double) jsonSize / binSize, jsonMs / binMs);
+    }
+
+    static List<Task> generate(int count, int children) {
+        Random rnd = new Random(42);
+        Task.Status[] statuses = Task.Status.values();
+        LocalDate start = LocalDate.of(2025, 9, 1);
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String title = TITLES[rnd.nextInt(TITLES.length)];
+            Task t = new Task(title, title + " before dinner", start.plusDays(rnd.nextInt(365)),
+                    5 * (1 + rnd.nextInt(10)), "child" + rnd.nextInt(children));
+            t.setStatus(statuses[rnd.nextInt(statuses.length)]);
+            if (t.getStatus() == Task.Status.APPROVED) t.setRating(1 + rnd.nextInt(5));
+            tasks.add(t);
+        }
+        return tasks;
+    }
+
+    private static double bestLoadMs(DataManager dm, int expected) {
+        double best = Double.MAX_VALUE;
+        for (int run = 0; run < 3; run++) {
+            long t0 = System.nanoTime();
+            int n = dm.loadTasks().size();
+            best = Math.min(best, (System.nanoTime() - t0) / 1e6);
+            if (n != expected) throw new IllegalStateException("Loaded " + n + " of " + expected);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,79 @@
+package benchmark;
+
+import model.IdGenerator;
+import model.Task;
+import persistence.DataManager;
+import persistence.DataRepository;
+import persistence.StorageFormat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Heap bytes per task, first for the Task objects alone and then for a whole
+ * {@link DataRepository} loaded with them from a temporary data directory,
+ * which adds the id, status, column and word indexes. Inputs are fresh String
+ * copies, as if just read from disk.
+ * Usage: {@code TaskFootprintBenchmark [taskCount]} (default 1,000,000).
+ */
+public class TaskFootprintBenchmark {
+
+    private static final String[] TITLES = {
+            "Homework", "Clean room", "Piano practice", "Read 20 pages", "Feed the cat",
+            "Math worksheet", "Brush teeth", "Tidy toys", "Spelling test", "Water plants"
+    };
+
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        long base = usedHeap();
+        List<Task> tasks = tasks(count);
+        long taskBytes = usedHeap() - base;
+
+        File dir = Files.createTempDirectory("kidtask-footprint").toFile();
+        try {
+            new DataManager(dir, StorageFormat.JSON).saveTasks(tasks);
+            tasks = null;
+
+            base = usedHeap();
+            DataRepository repository = new DataRepository(new DataManager(dir, StorageFormat.JSON)).load();
+            long repositoryBytes = usedHeap() - base;
+
+            System.out.printf("%,d tasks%n", repository.getTasks().size());
+            System.out.printf("tasks alone      : %6.1f bytes/task (list included)%n", (double) taskBytes / count);
+            System.out.printf("loaded repository: %6.1f bytes/task%n", (double) repositoryBytes / count);
+            repository.close();
+        } finally {
+            try (Stream<Path> files = Files.walk(dir.toPath())) {
+                files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+    }
+
+    private static List<Task> tasks(int count) {
+        Random rnd = new Random(42);
+        LocalDate start = LocalDate.of(2025, 9, 1);
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String title = TITLES[rnd.nextInt(TITLES.length)];
+            tasks.add(new Task(IdGenerator.nextId(), new String(title), title + " before dinner",
+                    LocalDate.ofEpochDay(start.toEpochDay() + rnd.nextInt(365)),
+                    5 * (1 + rnd.nextInt(10)), Task.Status.PENDING, new String("child" + rnd.nextInt(30)), 0));
+        }
+        return tasks;
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
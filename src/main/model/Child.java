@@ -24,6 +24,19 @@ public class Child extends User {
         updateLevel();
     }
 
+    public void setTotalPoints(int totalPoints) {
+        this.totalPoints = totalPoints;
+        updateLevel();
+    }
+
+    @Override
+    public Child copy() {
+        Child c = new Child(userId, email, password);
+        c.setTotalPoints(totalPoints);
+        c.version = version;
+        return c;
+    }
+
     private void updateLevel() {
         this.level = totalPoints / 100 + 1;
     }
@@ -0,0 +1,61 @@
+package model;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered ids in the UUIDv7 layout: 48 bits of Unix milliseconds, a 12-bit
+ * counter for ids made within the same millisecond, and 62 random bits.
+ * The timestamp and counter advance together through one CAS on an AtomicLong,
+ * so ids from this JVM are strictly increasing; the random bits come from each
+ * thread's own ThreadLocalRandom rather than a shared SecureRandom. A counter
+ * overflow borrows the next millisecond, so the clock never runs backwards.
+ * Ids sort by creation time both as UUIDs and as their string form.
+ */
+public final class IdGenerator {
+
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private IdGenerator() { }
+
+    public static UUID nextUuid() {
+        long now = System.currentTimeMillis() << 12;
+        long stamp = LAST.updateAndGet(prev -> Math.max(prev + 1, now));
+        long msb = (stamp >>> 12) << 16 | 0x7000L | (stamp & 0xFFFL);
+        long lsb = ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    public static String nextId() { return nextUuid().toString(); }
+
+    /**
+     * The UUID that {@code id} spells in canonical lower-case form, or null for
+     * any other id, so that {@code parse(id).toString()} always gives back {@code id}.
+     */
+    public static UUID parse(String id) {
+        if (id == null || id.length() != 36) return null;
+        long msb = 0, lsb = 0;
+        for (int i = 0; i < 36; i++) {
+            char c = id.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') return null;
+                continue;
+            }
+            int digit = c >= '0' && c <= '9' ? c - '0' : c >= 'a' && c <= 'f' ? c - 'a' + 10 : -1;
+            if (digit < 0) return null;
+            if (i < 18) msb = msb << 4 | digit;
+            else lsb = lsb << 4 | digit;
+        }
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * The map key {@link Task#getKey()} and {@link Wish#getKey()} give for a record
+     * with this id: its UUID, or the id itself when it is not a canonical UUID.
+     */
+    public static Object key(String id) {
+        UUID uuid = parse(id);
+        return uuid != null ? uuid : id;
+    }
+}
@@ -3,34 +3,58 @@ package model;
 import java.time.LocalDate;
 import java.util.UUID;
 
+/**
+ * Stored compactly: a UUID id as a {@link UUID} rather than its 36-char text,
+ * the due date as an epoch day, and title and assignee interned so repeated
+ * values share one String. The getters rebuild the id text and date on each
+ * call; indexes key on {@link #getKey()} instead, so they share one object.
+ */
 public class Task {
     public enum Status { PENDING, COMPLETED, APPROVED, REJECTED }
 
-    private String taskId;
-    private String title;
-    private String description;
-    private LocalDate dueDate;
-    private int points;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    private final UUID uuid;
+    private final String textId; // ids that are not canonical UUIDs, else null
+    private final String title;
+    private final String description;
+    private final int dueEpochDay;
+    private final int points;
     private Status status;
-    private String assignedToId;
+    private final String assignedToId;
     private int rating;
+    private int version;
 
     public Task(String title, String description, LocalDate dueDate, int points, String assignedToId) {
-        this.taskId = UUID.randomUUID().toString();
-        this.title = title;
+        this(IdGenerator.nextId(), title, description, dueDate, points,
+                Status.PENDING, assignedToId, 0);
+    }
+
+    public Task(String taskId, String title, String description, LocalDate dueDate, int points,
+                Status status, String assignedToId, int rating) {
+        this.uuid = IdGenerator.parse(taskId);
+        this.textId = uuid == null ? taskId : null;
+        this.title = title == null ? null : title.intern();
         this.description = description;
-        this.dueDate = dueDate;
+        this.dueEpochDay = dueDate == null ? NO_DATE : (int) dueDate.toEpochDay();
         this.points = points;
-        this.status = Status.PENDING;
-        this.assignedToId = assignedToId;
-        this.rating = 0;
+        this.status = status;
+        this.assignedToId = assignedToId == null ? null : assignedToId.intern();
+        this.rating = rating;
+    }
 
+    public String getTaskId() {
+        return uuid != null ? uuid.toString() : textId;
+    }
+
+    /** The id as a map key, without building its text; {@link IdGenerator#key} gives the same key for an id. */
+    public Object getKey() {
+        return uuid != null ? uuid : textId;
     }
 
-    public String getTaskId() { return taskId; }
     public String getTitle() { return title; }
     public String getDescription() { return description; }
-    public LocalDate getDueDate() { return dueDate; }
+    public LocalDate getDueDate() { return dueEpochDay == NO_DATE ? null : LocalDate.ofEpochDay(dueEpochDay); }
     public int getPoints() { return points; }
     public Status getStatus() { return status; }
     public String getAssignedToId() { return assignedToId; }
@@ -43,4 +67,15 @@ public class Task {
     }
 
     public void setStatus(Status status) { this.status = status; }
+
+    /** Number of committed changes; bumped by the repository on every update. */
+    public int getVersion() { return version; }
+    public void setVersion(int version) { this.version = version; }
+
+    /** A detached copy, for writing out while this one keeps changing. */
+    public Task copy() {
+        Task c = new Task(getTaskId(), title, description, getDueDate(), points, status, assignedToId, rating);
+        c.version = version;
+        return c;
+    }
 }
@@ -8,6 +8,7 @@ public class User {
     protected String email;
     protected String password;
     protected Role role;
+    protected int version;
     public User(String userId, String email, String password, Role role){
         this.userId = userId;
         this.email = email;
@@ -29,4 +30,15 @@ public class User {
     public void setEmail(String email) { this.email = email; }
     public void setPassword(String password) { this.password = password; }
     public void setRole(Role role) { this.role = role; }
+
+    /** Number of committed changes; bumped by the repository on every update. */
+    public int getVersion() { return version; }
+    public void setVersion(int version) { this.version = version; }
+
+    /** Like {@link Task#copy()}. */
+    public User copy() {
+        User c = new User(userId, email, password, role);
+        c.version = version;
+        return c;
+    }
 }
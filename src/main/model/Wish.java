@@ -2,27 +2,44 @@ package model;
 
 import java.util.UUID;
 
+/** Kept compact like {@link Task}: UUID ids as {@link UUID}s, names and user ids interned. */
 public class Wish {
     public enum Status { PENDING, APPROVED, REJECTED }
 
-    private String wishId;
-    private String name;
-    private int cost;
+    private final UUID uuid;
+    private final String textId; // ids that are not canonical UUIDs, else null
+    private final String name;
+    private final int cost;
     private Status status;
-    private String requestedById;
-    private String approvedById;
-    private int requiredLevel;
+    private final String requestedById;
+    private final String approvedById;
+    private final int requiredLevel;
+    private int version;
 
     public Wish(String name, int cost, String requestedById, int requiredLevel) {
-        this.wishId = UUID.randomUUID().toString();
-        this.name = name;
+        this(IdGenerator.nextId(), name, cost, Status.PENDING, requestedById, null, requiredLevel);
+    }
+
+    public Wish(String wishId, String name, int cost, Status status,
+                String requestedById, String approvedById, int requiredLevel) {
+        this.uuid = IdGenerator.parse(wishId);
+        this.textId = uuid == null ? wishId : null;
+        this.name = name == null ? null : name.intern();
         this.cost = cost;
-        this.status = Status.PENDING;
-        this.requestedById = requestedById;
+        this.status = status;
+        this.requestedById = requestedById == null ? null : requestedById.intern();
+        this.approvedById = approvedById == null ? null : approvedById.intern();
         this.requiredLevel = requiredLevel;
     }
 
-    public String getWishId() { return wishId; }
+    public String getWishId() {
+        return uuid != null ? uuid.toString() : textId;
+    }
+
+    /** Like {@link Task#getKey()}. */
+    public Object getKey() {
+        return uuid != null ? uuid : textId;
+    }
     public String getName() { return name; }
     public int getCost() { return cost; }
     public Status getStatus() { return status; }
@@ -31,4 +48,15 @@ public class Wish {
     public int getRequiredLevel() { return requiredLevel; }
 
     public void setStatus(Status status) { this.status = status; }
+
+    /** Number of committed changes; bumped by the repository on every update. */
+    public int getVersion() { return version; }
+    public void setVersion(int version) { this.version = version; }
+
+    /** Like {@link Task#copy()}. */
+    public Wish copy() {
+        Wish c = new Wish(getWishId(), name, cost, status, requestedById, approvedById, requiredLevel);
+        c.version = version;
+        return c;
+    }
 }
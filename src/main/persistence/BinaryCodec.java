@@ -0,0 +1,221 @@
+package persistence;
+
+import model.IdGenerator;
+import model.Task;
+import model.Wish;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Compact binary encoding for tasks and wishes.
+ *
+ * <pre>
+ * header   : magic int, kind byte, version byte
+ * strings  : count int, then (length int, UTF-8 bytes) per entry
+ * records  : count int, then one fixed-order record per entry
+ * </pre>
+ *
+ * Titles, descriptions and user ids go through the string table, so repeated
+ * values are stored once and referenced by index (-1 for null). Ids that parse
+ * as UUIDs are stored as two longs, dates as epoch days, enums as ordinals.
+ * Format 2 ends each record with the record's version; format 1 files, which
+ * have none, still read as version 0.
+ */
+public class BinaryCodec {
+
+    private static final int MAGIC = 0x4B544231; // "KTB1"
+    private static final byte VERSION = 2;
+    private static final byte KIND_TASKS = 1;
+    private static final byte KIND_WISHES = 2;
+
+    private static final byte ID_UUID = 0;
+    private static final byte ID_STRING = 1;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    // ===== TASKS =====
+    public static void writeTasks(OutputStream os, List<Task> tasks) throws IOException {
+        StringTable table = new StringTable();
+        for (Task t : tasks) {
+            table.add(t.getTitle());
+            table.add(t.getDescription());
+            table.add(t.getAssignedToId());
+            if (uuidOrNull(t.getTaskId()) == null) table.add(t.getTaskId());
+        }
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os, 1 << 16));
+        writeHeader(out, KIND_TASKS);
+        table.write(out);
+        out.writeInt(tasks.size());
+        for (Task t : tasks) {
+            writeId(out, table, t.getTaskId());
+            out.writeInt(table.indexOf(t.getTitle()));
+            out.writeInt(table.indexOf(t.getDescription()));
+            out.writeInt(t.getDueDate() == null ? NO_DATE : (int) t.getDueDate().toEpochDay());
+            out.writeInt(t.getPoints());
+            out.writeByte(t.getStatus() == null ? -1 : t.getStatus().ordinal());
+            out.writeInt(table.indexOf(t.getAssignedToId()));
+            out.writeByte(t.getRating());
+            out.writeInt(t.getVersion());
+        }
+        out.flush();
+    }
+
+    public static List<Task> readTasks(InputStream is) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(is.readAllBytes());
+        int format = readHeader(in, KIND_TASKS);
+        String[] strings = readStrings(in);
+        Task.Status[] statuses = Task.Status.values();
+
+        int n = in.getInt();
+        List<Task> tasks = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String id = readId(in, strings);
+            String title = lookup(strings, in.getInt());
+            String description = lookup(strings, in.getInt());
+            int day = in.getInt();
+            int points = in.getInt();
+            byte status = in.get();
+            String assignedToId = lookup(strings, in.getInt());
+            int rating = in.get();
+            Task t = new Task(id, title, description,
+                    day == NO_DATE ? null : LocalDate.ofEpochDay(day), points,
+                    status < 0 ? null : statuses[status], assignedToId, rating);
+            if (format >= 2) t.setVersion(in.getInt());
+            tasks.add(t);
+        }
+        return tasks;
+    }
+
+    // ===== WISHES =====
+    public static void writeWishes(OutputStream os, List<Wish> wishes) throws IOException {
+        StringTable table = new StringTable();
+        for (Wish w : wishes) {
+            table.add(w.getName());
+            table.add(w.getRequestedById());
+            table.add(w.getApprovedById());
+            if (uuidOrNull(w.getWishId()) == null) table.add(w.getWishId());
+        }
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os, 1 << 16));
+        writeHeader(out, KIND_WISHES);
+        table.write(out);
+        out.writeInt(wishes.size());
+        for (Wish w : wishes) {
+            writeId(out, table, w.getWishId());
+            out.writeInt(table.indexOf(w.getName()));
+            out.writeInt(w.getCost());
+            out.writeByte(w.getStatus() == null ? -1 : w.getStatus().ordinal());
+            out.writeInt(table.indexOf(w.getRequestedById()));
+            out.writeInt(table.indexOf(w.getApprovedById()));
+            out.writeInt(w.getRequiredLevel());
+            out.writeInt(w.getVersion());
+        }
+        out.flush();
+    }
+
+    public static List<Wish> readWishes(InputStream is) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(is.readAllBytes());
+        int format = readHeader(in, KIND_WISHES);
+        String[] strings = readStrings(in);
+        Wish.Status[] statuses = Wish.Status.values();
+
+        int n = in.getInt();
+        List<Wish> wishes = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String id = readId(in, strings);
+            String name = lookup(strings, in.getInt());
+            int cost = in.getInt();
+            byte status = in.get();
+            String requestedById = lookup(strings, in.getInt());
+            String approvedById = lookup(strings, in.getInt());
+            int requiredLevel = in.getInt();
+            Wish w = new Wish(id, name, cost, status < 0 ? null : statuses[status],
+                    requestedById, approvedById, requiredLevel);
+            if (format >= 2) w.setVersion(in.getInt());
+            wishes.add(w);
+        }
+        return wishes;
+    }
+
+    // ===== helpers =====
+    private static void writeHeader(DataOutputStream out, byte kind) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(kind);
+        out.writeByte(VERSION);
+    }
+
+    /** Returns the format version. */
+    private static int readHeader(ByteBuffer in, byte kind) throws IOException {
+        if (in.remaining() < 6 || in.getInt() != MAGIC) throw new IOException("Not a KidTask binary file");
+        if (in.get() != kind) throw new IOException("Unexpected record kind");
+        byte format = in.get();
+        if (format < 1 || format > VERSION) throw new IOException("Unsupported binary version");
+        return format;
+    }
+
+    private static void writeId(DataOutputStream out, StringTable table, String id) throws IOException {
+        UUID uuid = uuidOrNull(id);
+        if (uuid != null) {
+            out.writeByte(ID_UUID);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        } else {
+            out.writeByte(ID_STRING);
+            out.writeInt(table.indexOf(id));
+        }
+    }
+
+    private static String readId(ByteBuffer in, String[] strings) {
+        if (in.get() == ID_UUID) return new UUID(in.getLong(), in.getLong()).toString();
+        return lookup(strings, in.getInt());
+    }
+
+    /** Only canonical lower-case UUIDs, so the text round-trips exactly. */
+    static UUID uuidOrNull(String id) {
+        return IdGenerator.parse(id);
+    }
+
+    private static String[] readStrings(ByteBuffer in) {
+        String[] strings = new String[in.getInt()];
+        byte[] bytes = in.array();
+        for (int i = 0; i < strings.length; i++) {
+            int len = in.getInt();
+            strings[i] = new String(bytes, in.position(), len, StandardCharsets.UTF_8);
+            in.position(in.position() + len);
+        }
+        return strings;
+    }
+
+    private static String lookup(String[] strings, int index) {
+        return index < 0 ? null : strings[index];
+    }
+
+    private static class StringTable {
+        private final Map<String, Integer> index = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        void add(String s) {
+            if (s != null && !index.containsKey(s)) {
+                index.put(s, values.size());
+                values.add(s);
+            }
+        }
+
+        int indexOf(String s) {
+            return s == null ? -1 : index.get(s);
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeInt(values.size());
+            for (String s : values) {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package persistence;
+
+import model.Task;
+import model.Wish;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Converts the task and wish snapshots of a data directory between JSON and
+ * the binary format. Usage: {@code BinaryConverter to-binary|to-json [dataDir]}
+ */
+public class BinaryConverter {
+
+    public static void main(String[] args) {
+        if (args.length < 1 || !(args[0].equals("to-binary") || args[0].equals("to-json"))) {
+            System.out.println("Usage: BinaryConverter to-binary|to-json [dataDir]");
+            return;
+        }
+        File dir = new File(args.length > 1 ? args[1] : "data");
+        boolean ok = args[0].equals("to-binary")
+                ? convert(dir, StorageFormat.JSON, StorageFormat.BINARY)
+                : convert(dir, StorageFormat.BINARY, StorageFormat.JSON);
+        System.out.println(ok ? "Conversion finished" : "Conversion failed");
+    }
+
+    public static boolean convert(File dataDir, StorageFormat from, StorageFormat to) {
+        DataManager source = new DataManager(dataDir, from);
+        DataManager target = new DataManager(dataDir, to);
+
+        List<Task> tasks = source.loadTasks();
+        List<Wish> wishes = source.loadWishes();
+        System.out.println("Converting " + tasks.size() + " tasks and " + wishes.size()
+                + " wishes from " + from + " to " + to);
+        return target.saveTasks(tasks) && target.saveWishes(wishes);
+    }
+}
@@ -0,0 +1,108 @@
+package persistence;
+
+import java.io.*;
+import java.util.Locale;
+import java.util.zip.*;
+
+/**
+ * Optional compression for a data file, applied as a stream wrapper so nothing
+ * is buffered in memory beyond the codec's window. The suffix is appended to
+ * the plain file name, e.g. tasks.json.gz. GZIP uses the default level;
+ * DEFLATE trades a little size for faster saves.
+ */
+public enum Compression {
+    NONE(""),
+    GZIP(".gz"),
+    DEFLATE(".deflate");
+
+    private static final int BUFFER = 1 << 16;
+
+    private final String suffix;
+
+    Compression(String suffix) { this.suffix = suffix; }
+
+    public String getSuffix() { return suffix; }
+
+    public File apply(File plain) { return new File(plain.getPath() + suffix); }
+
+    public InputStream wrap(InputStream in) throws IOException {
+        return switch (this) {
+            case NONE -> new BufferedInputStream(in, BUFFER);
+            case GZIP -> new GZIPInputStream(in, BUFFER);
+            // a caller-supplied Inflater is not ended by close(), so end it here
+            case DEFLATE -> new InflaterInputStream(in, new Inflater(), BUFFER) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        inf.end();
+                    }
+                }
+            };
+        };
+    }
+
+    /**
+     * Closing the returned stream writes the codec's trailer and frees its native
+     * memory, but leaves {@code out} open for its owner to sync and close.
+     */
+    public OutputStream wrap(OutputStream out) throws IOException {
+        return switch (this) {
+            case NONE -> new BufferedOutputStream(out, BUFFER) {
+                @Override
+                public void close() throws IOException { flush(); }
+            };
+            case GZIP -> new GZIPOutputStream(out, BUFFER) {
+                private boolean closed;
+
+                @Override
+                public void close() throws IOException {
+                    if (closed) return;
+                    closed = true;
+                    finishAndEnd(this, def);
+                }
+            };
+            case DEFLATE -> new DeflaterOutputStream(out, new Deflater(Deflater.BEST_SPEED), BUFFER) {
+                private boolean closed;
+
+                @Override
+                public void close() throws IOException {
+                    if (closed) return;
+                    closed = true;
+                    finishAndEnd(this, def);
+                }
+            };
+        };
+    }
+
+    private static void finishAndEnd(DeflaterOutputStream out, Deflater def) throws IOException {
+        try {
+            out.finish();
+            out.flush();
+        } finally {
+            def.end();
+        }
+    }
+
+    /** The compression a stored file was written with, judged by its suffix. */
+    public static Compression of(File stored) {
+        for (Compression c : values())
+            if (c != NONE && stored.getName().endsWith(c.suffix)) return c;
+        return NONE;
+    }
+
+    /**
+     * "gzip", "deflate" or "none", in any case; null or blank means {@link #NONE}.
+     * An unknown name is reported and also read as {@link #NONE}, so a typo in a
+     * system property does not stop the app from starting.
+     */
+    public static Compression parse(String name) {
+        if (name == null || name.isBlank()) return NONE;
+        String upper = name.trim().toUpperCase(Locale.ROOT);
+        for (Compression c : values())
+            if (c.name().equals(upper)) return c;
+        System.out.println("Unknown compression \"" + name.trim() + "\" (expected none, gzip or deflate), storing uncompressed");
+        return NONE;
+    }
+}
@@ -0,0 +1,11 @@
+package persistence;
+
+import java.util.Set;
+
+/**
+ * Told when another instance sharing the data directory changed records.
+ * Called on the watcher thread; Swing listeners must hop to the EDT themselves.
+ */
+public interface DataListener {
+    void dataChanged(Set<Mutation.Type> changed);
+}
@@ -1,7 +1,11 @@
 package persistence;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import model.IdGenerator;
 import model.Task;
 import model.Wish;
 import model.User;
@@ -10,39 +14,135 @@ import java.time.LocalDate;
 
 import java.io.*;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class DataManager {
-    private final Gson gson = new GsonBuilder()
-            .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
-            .create();
+    private final Gson gson = createGson();
 
-    private final File usersFile = new File("data/users.json");
-    private final File tasksFile = new File("data/tasks.json");
-    private final File wishesFile = new File("data/wishes.json");
+    /** Gson with the hand-written model adapters; users keep their Child subtype. */
+    public static Gson createGson(){
+        return new GsonBuilder()
+                .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
+                .registerTypeHierarchyAdapter(User.class, new UserAdapter())
+                .registerTypeAdapter(Task.class, new TaskAdapter())
+                .registerTypeAdapter(Wish.class, new WishAdapter())
+                .create();
+    }
+
+    private final File dataDir;
+    private final StorageFormat format;
+    private final File usersFile;
+    private final File tasksFile;
+    private final File wishesFile;
+    private final File tasksBinFile;
+    private final File wishesBinFile;
+    private final File snapshotFile;
+    private final File shardDir;
+    private final File manifestFile;
+    private final int taskShards;
+    private final Journal journal;
+    private final TaskArchive archive;
+    private final Map<String, Compression> compression = new HashMap<>();
 
     private static final String TASK_FILE = "data/tasks.ser";
 
     public DataManager(){
+        this(new File("data"), StorageFormat.JSON);
+    }
+
+    public DataManager(StorageFormat format){
+        this(new File("data"), format);
+    }
+
+    public DataManager(File dataDir, StorageFormat format){
+        this(dataDir, format, 0);
+    }
+
+    /** {@code taskShards} > 0 splits tasks into that many files under data/tasks/, keyed by assignee. */
+    public DataManager(File dataDir, StorageFormat format, int taskShards){
+        this.dataDir = dataDir;
+        this.format = format;
+        this.taskShards = taskShards;
+        usersFile = new File(dataDir, "users.json");
+        tasksFile = new File(dataDir, "tasks.json");
+        wishesFile = new File(dataDir, "wishes.json");
+        tasksBinFile = new File(dataDir, "tasks" + StorageFormat.BINARY.getExtension());
+        wishesBinFile = new File(dataDir, "wishes" + StorageFormat.BINARY.getExtension());
+        snapshotFile = new File(dataDir, "snapshot.json");
+        shardDir = new File(dataDir, "tasks");
+        manifestFile = new File(shardDir, "manifest.json");
+        journal = new Journal(new File(dataDir, "journal.log"), gson);
+        archive = new TaskArchive(new File(dataDir, "archive"), gson);
+
         try {
             Files.createDirectories(usersFile.toPath().getParent());
-            if(!usersFile.exists()) usersFile.createNewFile();
-            if(!tasksFile.exists()) tasksFile.createNewFile();
-            if(!wishesFile.exists()) wishesFile.createNewFile();
-            initIfEmpty(usersFile);
-            initIfEmpty(tasksFile);
-            initIfEmpty(wishesFile);
+            if(isSharded()) Files.createDirectories(shardDir.toPath());
+            initIfMissing(usersFile);
+            initIfMissing(tasksFile);
+            initIfMissing(wishesFile);
         } catch(IOException e){ e.printStackTrace(); }
     }
 
-    private void initIfEmpty(File f) throws IOException{
-        if(f.length() == 0) try(Writer w = new FileWriter(f)){ w.write("[]"); }
+    private void initIfMissing(File f) throws IOException{
+        for(Compression c : Compression.values())
+            if(c != Compression.NONE && c.apply(f).exists()) return;
+        if(!f.exists() || f.length() == 0) try(Writer w = new FileWriter(f)){ w.write("[]"); }
+    }
+
+    /**
+     * Compresses the users, tasks or wishes files (including task shards and the
+     * binary files) from their next save on. Files already written in another
+     * form stay readable and are replaced by that save.
+     */
+    public void setCompression(String file, Compression c){
+        compression.put(file, c);
+    }
+
+    public Compression getCompression(String file){
+        return compression.getOrDefault(file, Compression.NONE);
+    }
+
+    private Compression compressionOf(File plain){
+        if(shardDir.equals(plain.getParentFile())) return getCompression("tasks");
+        String name = plain.getName();
+        return getCompression(name.substring(0, name.indexOf('.')));
+    }
+
+    /** The stored form of {@code plain}: the configured one if present, else whichever exists. */
+    private File stored(File plain){
+        File preferred = compressionOf(plain).apply(plain);
+        if(preferred.exists()) return preferred;
+        for(Compression c : Compression.values())
+            if(c.apply(plain).exists()) return c.apply(plain);
+        return preferred;
+    }
+
+    private InputStream open(File plain) throws IOException{
+        File f = stored(plain);
+        return Compression.of(f).wrap(new FileInputStream(f));
+    }
+
+    /** Writes the configured form of {@code plain} and removes any other form left from before. */
+    private boolean writeData(File plain, StreamBody body){
+        Compression c = compressionOf(plain);
+        boolean written = writeAtomically(c.apply(plain), out -> {
+            try(OutputStream data = c.wrap(out)){
+                body.write(data);
+            }
+        });
+        if(!written) return false;
+        for(Compression other : Compression.values())
+            if(other != c) other.apply(plain).delete();
+        return true;
     }
 
     private <T> List<T> readList(File f, Class<T> clazz){
-        try(Reader r = new FileReader(f)){
+        try(Reader r = new InputStreamReader(open(f), StandardCharsets.UTF_8)){
             Type type = TypeToken.getParameterized(List.class, clazz).getType();
             List<T> list = gson.fromJson(r, type);
             return list == null ? new ArrayList<>() : list;
@@ -50,18 +150,311 @@ public class DataManager {
     }
 
     private <T> boolean writeList(File f, List<T> list){
-        try(Writer w = new FileWriter(f)){
+        return writeData(f, out -> {
+            Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
             gson.toJson(list, w);
+            w.flush();
+        });
+    }
+
+    private boolean writeJson(File f, Object value){
+        return writeAtomically(f, out -> {
+            Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            gson.toJson(value, w);
+            w.flush();
+        });
+    }
+
+    interface StreamBody {
+        void write(OutputStream out) throws IOException;
+    }
+
+    /** Writes to a temp file, syncs it and renames it over {@code f}, so a crash never leaves a half-written file. */
+    static boolean writeAtomically(File f, StreamBody body){
+        File tmp = new File(f.getPath() + ".tmp");
+        try(FileOutputStream out = new FileOutputStream(tmp)){
+            body.write(out);
+            out.getFD().sync();
+        } catch(IOException | JsonIOException e){ e.printStackTrace(); return false; }
+
+        try{
+            Files.move(tmp.toPath(), f.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
             return true;
         } catch(IOException e){ e.printStackTrace(); return false; }
     }
 
     public List<User> loadUsers(){ return readList(usersFile, User.class); }
     public boolean saveUsers(List<User> users){ return writeList(usersFile, users); }
-    public List<Task> loadTasks(){ return readList(tasksFile, Task.class); }
-    public boolean saveTasks(List<Task> tasks){ return writeList(tasksFile, tasks); }
-    public List<Wish> loadWishes(){ return readList(wishesFile, Wish.class); }
-    public boolean saveWishes(List<Wish> wishes){ return writeList(wishesFile, wishes); }
+    public StorageFormat getFormat(){ return format; }
+    public File getDataDir(){ return dataDir; }
+
+    public boolean isSharded(){ return taskShards > 0; }
+    public int getTaskShards(){ return taskShards; }
+
+    /** Shard that holds every task assigned to {@code assignedToId}. */
+    public int shardOf(String assignedToId){
+        return Math.floorMod(Objects.hashCode(assignedToId), taskShards);
+    }
+
+    private File shardFile(int shard, String extension){
+        return new File(shardDir, String.format("shard-%03d%s", shard, extension));
+    }
+
+    public List<Task> loadTasks(){
+        if(!isSharded()) return loadUnshardedTasks();
+
+        ShardManifest manifest = readManifest();
+        if(manifest == null){
+            // first run with sharding: split the single file once
+            List<Task> all = loadUnshardedTasks();
+            saveTasks(all);
+            return all;
+        }
+
+        List<List<Task>> shards = IntStream.range(0, manifest.shardCount).parallel()
+                .mapToObj(i -> readTaskFile(shardFile(i, manifest.extension)))
+                .collect(Collectors.toList());
+        List<Task> all = new ArrayList<>();
+        for(List<Task> shard : shards) all.addAll(shard);
+
+        if(manifest.shardCount != taskShards || !manifest.extension.equals(format.getExtension()))
+            saveTasks(all);
+        return all;
+    }
+
+    private List<Task> loadUnshardedTasks(){
+        return readTaskFile(format == StorageFormat.BINARY && stored(tasksBinFile).exists() ? tasksBinFile : tasksFile);
+    }
+
+    private List<Task> readTaskFile(File f){
+        if(!stored(f).exists()) return new ArrayList<>();
+        if(f.getName().endsWith(StorageFormat.BINARY.getExtension())){
+            try(InputStream in = open(f)){
+                return BinaryCodec.readTasks(in);
+            } catch(IOException e){ e.printStackTrace(); return new ArrayList<>(); }
+        }
+        return readList(f, Task.class);
+    }
+
+    private boolean writeTaskFile(File f, List<Task> tasks){
+        if(format == StorageFormat.BINARY)
+            return writeData(f, out -> BinaryCodec.writeTasks(out, tasks));
+        return writeList(f, tasks);
+    }
+
+    public boolean saveTasks(List<Task> tasks){
+        if(isSharded()) return saveShards(tasks, null);
+        return writeTaskFile(format == StorageFormat.BINARY ? tasksBinFile : tasksFile, tasks);
+    }
+
+    /** Rewrites only the shards in {@code dirty} (all of them when null), then the manifest. */
+    private boolean saveShards(Collection<Task> tasks, Set<Integer> dirty){
+        List<List<Task>> parts = new ArrayList<>();
+        for(int i = 0; i < taskShards; i++) parts.add(new ArrayList<>());
+        for(Task t : tasks) parts.get(shardOf(t.getAssignedToId())).add(t);
+
+        int[] counts = new int[taskShards];
+        for(int i = 0; i < taskShards; i++){
+            counts[i] = parts.get(i).size();
+            if(dirty != null && !dirty.contains(i)) continue;
+            if(!writeTaskFile(shardFile(i, format.getExtension()), parts.get(i))) return false;
+        }
+        return writeJson(manifestFile, new ShardManifest(taskShards, format.getExtension(), counts));
+    }
+
+    private ShardManifest readManifest(){
+        if(!manifestFile.exists()) return null;
+        try(Reader r = new FileReader(manifestFile)){
+            return gson.fromJson(r, ShardManifest.class);
+        } catch(Exception e){ e.printStackTrace(); return null; }
+    }
+
+    private static class ShardManifest {
+        private final int shardCount;
+        private final String extension;
+        private final int[] counts;
+
+        ShardManifest(int shardCount, String extension, int[] counts) {
+            this.shardCount = shardCount;
+            this.extension = extension;
+            this.counts = counts;
+        }
+    }
+
+    /**
+     * Streams the task file(s) and only builds the tasks that pass {@code query}.
+     * Fields after the first failing check are skipped without being decoded.
+     * With sharding on, a query for one assignee reads only that child's shard.
+     * Journal entries newer than the snapshot are applied on top, so the result
+     * is what a loaded repository would return; if a snapshot replaces the files
+     * meanwhile, they are read again. Binary files are decoded in full and
+     * filtered afterwards. Takes no lock, so it can run while the repository loads.
+     */
+    public List<Task> queryTasks(TaskQuery query){
+        while(true){
+            long seq = loadSnapshotSeq();
+            List<Mutation> tail = new ArrayList<>();
+            Set<String> touched = new HashSet<>();
+            for(Mutation m : journal.peekAfter(seq)){
+                if(m.getType() != Mutation.Type.TASK) continue;
+                tail.add(m);
+                touched.add(m.getId());
+            }
+
+            // tasks the tail changes are kept whether or not they match yet
+            Map<Object, Task> found = new LinkedHashMap<>();
+            for(File f : taskFilesFor(query)){
+                if(f.getName().endsWith(StorageFormat.BINARY.getExtension())){
+                    for(Task t : readTaskFile(f))
+                        if(touched.contains(t.getTaskId()) || query.matches(t)) found.put(t.getKey(), t);
+                } else {
+                    streamTasks(f, query, touched, found);
+                }
+            }
+            if(loadSnapshotSeq() != seq) continue;
+
+            for(Mutation m : tail) applyTo(found, m);
+            List<Task> result = new ArrayList<>();
+            for(Task t : found.values())
+                if(query.matches(t) && !archive.contains(t.getTaskId())) result.add(t);
+            return result;
+        }
+    }
+
+    private List<File> taskFilesFor(TaskQuery query){
+        ShardManifest manifest = isSharded() ? readManifest() : null;
+        if(manifest == null) return List.of(
+                format == StorageFormat.BINARY && stored(tasksBinFile).exists() ? tasksBinFile : tasksFile);
+
+        if(query.getAssignedToId() != null && manifest.shardCount == taskShards)
+            return List.of(shardFile(shardOf(query.getAssignedToId()), manifest.extension));
+        List<File> files = new ArrayList<>();
+        for(int i = 0; i < manifest.shardCount; i++) files.add(shardFile(i, manifest.extension));
+        return files;
+    }
+
+    private void streamTasks(File f, TaskQuery query, Set<String> touched, Map<Object, Task> found){
+        if(!stored(f).exists()) return;
+        try(JsonReader r = new JsonReader(new InputStreamReader(open(f), StandardCharsets.UTF_8))){
+            if(r.peek() == JsonToken.END_DOCUMENT) return;
+            r.beginArray();
+            while(r.hasNext()){
+                Task t = readTaskIfMatches(r, query, touched);
+                if(t != null) found.put(t.getKey(), t);
+            }
+            r.endArray();
+        } catch(Exception e){ e.printStackTrace(); }
+    }
+
+    /** TaskAdapter writes the id first, so a task in {@code keep} is known before any check can fail. */
+    private Task readTaskIfMatches(JsonReader r, TaskQuery query, Set<String> keep) throws IOException{
+        String taskId = null, title = null, description = null, assignedToId = null;
+        LocalDate dueDate = null;
+        Task.Status status = null;
+        int points = 0, rating = 0, version = 0;
+        boolean kept = false, match = true;
+
+        r.beginObject();
+        while(r.hasNext()){
+            String name = r.nextName();
+            if(!match || r.peek() == JsonToken.NULL){ r.skipValue(); continue; }
+            switch(name){
+                case "taskId" -> {
+                    taskId = r.nextString();
+                    kept = keep.contains(taskId);
+                }
+                case "title" -> title = r.nextString();
+                case "description" -> description = r.nextString();
+                case "dueDate" -> {
+                    dueDate = LocalDate.parse(r.nextString());
+                    match = kept || query.matchesDueDate(dueDate);
+                }
+                case "points" -> points = r.nextInt();
+                case "status" -> {
+                    status = Task.Status.valueOf(r.nextString());
+                    match = kept || query.matchesStatus(status);
+                }
+                case "assignedToId" -> {
+                    assignedToId = r.nextString();
+                    match = kept || query.matchesAssignee(assignedToId);
+                }
+                case "rating" -> rating = r.nextInt();
+                case "version" -> version = r.nextInt();
+                default -> r.skipValue();
+            }
+        }
+        r.endObject();
+
+        if(!match) return null;
+        Task t = new Task(taskId, title, description, dueDate, points, status, assignedToId, rating);
+        t.setVersion(version);
+        return kept || query.matches(t) ? t : null;
+    }
+
+    /**
+     * Replays a journaled task patch the way the repository does. A patch the
+     * task already has, because a newer snapshot was read, is skipped.
+     */
+    private static void applyTo(Map<Object, Task> found, Mutation m){
+        Object key = IdGenerator.key(m.getId());
+        if(m.getTask() != null) found.putIfAbsent(key, m.getTask());
+        Task t = found.get(key);
+        if(t == null || m.getVersion() != null && m.getVersion() <= t.getVersion()) return;
+        if(m.isArchived()){
+            found.remove(key);
+            return;
+        }
+        if(m.getTaskStatus() != null) t.setStatus(m.getTaskStatus());
+        if(m.getRating() != null) t.setRating(m.getRating());
+        if(m.getVersion() != null) t.setVersion(m.getVersion());
+    }
+
+    public List<Wish> loadWishes(){
+        if(format == StorageFormat.BINARY && stored(wishesBinFile).exists()){
+            try(InputStream in = open(wishesBinFile)){
+                return BinaryCodec.readWishes(in);
+            } catch(IOException e){ e.printStackTrace(); return new ArrayList<>(); }
+        }
+        return readList(wishesFile, Wish.class);
+    }
+
+    public boolean saveWishes(List<Wish> wishes){
+        if(format == StorageFormat.BINARY)
+            return writeData(wishesBinFile, out -> BinaryCodec.writeWishes(out, wishes));
+        return writeList(wishesFile, wishes);
+    }
+
+    public Journal getJournal() { return journal; }
+    public TaskArchive getArchive() { return archive; }
+
+    /** Sequence number of the last journal entry folded into the JSON files. */
+    public long loadSnapshotSeq() {
+        if (!snapshotFile.exists()) return 0;
+        try (Reader r = new FileReader(snapshotFile)) {
+            SnapshotInfo info = gson.fromJson(r, SnapshotInfo.class);
+            return info == null ? 0 : info.seq;
+        } catch (Exception e) { e.printStackTrace(); return 0; }
+    }
+
+    /**
+     * Rewrites the snapshot files and clears the journal behind them. With sharding
+     * on, only the task shards in {@code dirtyShards} are rewritten (all when null).
+     * The mapped task file is dropped, to be rebuilt on its next open.
+     */
+    public boolean saveSnapshot(List<User> users, List<Task> tasks, List<Wish> wishes, long seq,
+                                Set<Integer> dirtyShards) {
+        if (!saveUsers(users) || !saveWishes(wishes)) return false;
+        if (isSharded() ? !saveShards(tasks, dirtyShards) : !saveTasks(tasks)) return false;
+        if (!writeJson(snapshotFile, new SnapshotInfo(seq))) return false;
+        journal.reset();
+        return true;
+    }
+
+    private static class SnapshotInfo {
+        private final long seq;
+        SnapshotInfo(long seq) { this.seq = seq; }
+    }
 
     public void addWish(Wish w) {
         List<Wish> current = loadWishes(); 
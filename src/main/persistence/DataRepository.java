@@ -0,0 +1,890 @@
+package persistence;
+
+import com.google.gson.JsonObject;
+import model.Child;
+import model.IdGenerator;
+import model.Task;
+import model.User;
+import model.Wish;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Keeps users, tasks and wishes in memory after a single load. Every change is
+ * applied in memory and queued as a {@link Mutation} patch, merged with any
+ * unwritten patch for the same record; a background writer appends the patches
+ * to the journal and periodically compacts it into a snapshot.
+ * Each change names its {@link Durability}, which decides how soon that write happens.
+ * Finished tasks past a configurable age move to the {@link TaskArchive}; totals
+ * and history queries combine the in-memory set with the archive.
+ * With {@link #startWatching()}, changes other instances make to the same data
+ * directory are tailed from the journal and passed on to {@link DataListener}s.
+ *
+ * <p>Instances write the journal one at a time under {@link Journal#lock()}, after
+ * catching up with what the others wrote. Every change bumps the record's
+ * version; if another instance changed the same record since our unwritten
+ * change was based on it, ours is undone, theirs wins and ours is re-run on top
+ * of it, and a compare-and-set whose expected state no longer holds reports false.
+ * An entry from another instance that was based on a version we never saw means
+ * we missed a change, and everything is reloaded.
+ */
+public class DataRepository {
+
+    public static final long DEFAULT_FLUSH_INTERVAL_MS = 2000;
+    public static final int DEFAULT_SNAPSHOT_EVERY = 500;
+    public static final long DEFAULT_GROUP_COMMIT_MS = 10;
+    public static final int DEFAULT_ARCHIVE_AFTER_DAYS = 30;
+
+    private final DataManager dataManager;
+    private final Journal journal;
+    private final TaskArchive archive;
+    private final long flushIntervalMs;
+    private final int snapshotEvery;
+    private final long groupCommitMs;
+
+    private final Map<String, User> users = new LinkedHashMap<>();
+    private final TaskIndex tasks = new TaskIndex();
+    private final TaskColumns columns = new TaskColumns();
+    private final Map<Object, Wish> wishes = new LinkedHashMap<>(); // by Wish.getKey()
+    // searches take only the read lock, so a slow one does not hold up the repository;
+    // changes to the indexes take the write lock while holding the repository lock
+    private final ReadWriteLock textLock = new ReentrantReadWriteLock();
+    private final TextIndex<Task> taskText = new TextIndex<>(DataRepository::searchText);
+    private final TextIndex<Wish> wishText = new TextIndex<>(Wish::getName);
+
+    // one merged patch per changed record, in first-change order, and the operations behind it
+    private final Map<String, JsonObject> pending = new LinkedHashMap<>();
+    private final Map<String, List<Op>> pendingOps = new HashMap<>();
+    private final Set<Integer> dirtyShards = new HashSet<>();
+    private boolean groupCommitScheduled;
+    private int conflicts;
+
+    private final Object flushLock = new Object();
+    private final ScheduledExecutorService writer;
+    private final Thread flushOnExit = new Thread(this::flush, "data-flush-on-exit");
+    private final CompletableFuture<DataRepository> ready = new CompletableFuture<>();
+
+    private final List<DataListener> listeners = new CopyOnWriteArrayList<>();
+    private long snapshotSeq;
+    private DataWatcher watcher;
+
+    public DataRepository(DataManager dm) {
+        this(dm, DEFAULT_FLUSH_INTERVAL_MS, DEFAULT_SNAPSHOT_EVERY, DEFAULT_GROUP_COMMIT_MS);
+    }
+
+    public DataRepository(DataManager dm, long flushIntervalMs, int snapshotEvery, long groupCommitMs) {
+        this.dataManager = dm;
+        this.journal = dm.getJournal();
+        this.archive = dm.getArchive();
+        this.flushIntervalMs = flushIntervalMs;
+        this.snapshotEvery = snapshotEvery;
+        this.groupCommitMs = groupCommitMs;
+
+        writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "data-writer");
+            t.setDaemon(true);
+            return t;
+        });
+
+        Runtime.getRuntime().addShutdownHook(flushOnExit);
+    }
+
+    /**
+     * Loads users, tasks and wishes concurrently on background threads, then
+     * replays the journal tail on top of them. The journal lock is held from the
+     * first read to the last, so another instance cannot write a snapshot or
+     * truncate the journal halfway through. The periodic flush starts once the
+     * returned future completes; callers must not mutate the repository before that.
+     */
+    public CompletableFuture<DataRepository> loadAsync() {
+        long start = System.nanoTime();
+        ExecutorService loader = Executors.newFixedThreadPool(4, r -> {
+            Thread t = new Thread(r, "data-loader");
+            t.setDaemon(true);
+            return t;
+        });
+
+        CompletableFuture.runAsync(() -> {
+                    journal.lock();
+                    try {
+                        CompletableFuture<List<User>> userLoad =
+                                CompletableFuture.supplyAsync(() -> timed("users", dataManager::loadUsers), loader);
+                        CompletableFuture<List<Task>> taskLoad =
+                                CompletableFuture.supplyAsync(() -> timed("tasks", dataManager::loadTasks), loader);
+                        CompletableFuture<List<Wish>> wishLoad =
+                                CompletableFuture.supplyAsync(() -> timed("wishes", dataManager::loadWishes), loader);
+                        install(userLoad.join(), taskLoad.join(), wishLoad.join());
+                    } finally {
+                        journal.unlock();
+                    }
+                    writer.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+                    System.out.printf("Startup: data ready in %d ms%n", (System.nanoTime() - start) / 1_000_000);
+                    ready.complete(this);
+                }, loader)
+                .whenComplete((v, e) -> {
+                    loader.shutdown();
+                    if (e != null) ready.completeExceptionally(e);
+                });
+        return ready;
+    }
+
+    /** Blocking variant of {@link #loadAsync()}. */
+    public DataRepository load() {
+        return loadAsync().join();
+    }
+
+    public CompletableFuture<DataRepository> whenReady() { return ready; }
+
+    private static <T> T timed(String phase, Supplier<T> step) {
+        long t0 = System.nanoTime();
+        T result = step.get();
+        System.out.printf("Startup: %s loaded in %d ms%n", phase, (System.nanoTime() - t0) / 1_000_000);
+        return result;
+    }
+
+    /** Installs the loaded snapshot, then replays the journal tail on top of it. Caller holds the journal lock. */
+    private synchronized void install(List<User> userList, List<Task> taskList, List<Wish> wishList) {
+        textLock.writeLock().lock();
+        try {
+            for (User u : userList) users.put(u.getUserId(), u);
+            for (Task t : taskList) {
+                tasks.add(t);
+                columns.put(t);
+                taskText.put(t.getKey(), t);
+            }
+            for (Wish w : wishList) {
+                wishes.put(w.getKey(), w);
+                wishText.put(w.getKey(), w);
+            }
+
+            snapshotSeq = dataManager.loadSnapshotSeq();
+            List<Mutation> tail = timed("journal", () -> journal.readAfter(snapshotSeq));
+            for (Mutation m : tail) apply(m);
+            if (!tail.isEmpty())
+                System.out.println("Replayed " + tail.size() + " journal entries");
+
+            // archived, but the crash came before the journal said so
+            int dropped = 0;
+            for (Task t : new ArrayList<>(tasks.all())) {
+                if (archive.contains(t.getTaskId())) {
+                    removeTask(t);
+                    dropped++;
+                }
+            }
+            if (dropped > 0)
+                System.out.println("Dropped " + dropped + " tasks that are already archived");
+        } finally {
+            textLock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Mutation m) {
+        switch (m.getType()) {
+            case TASK -> {
+                if (m.getTask() != null) {
+                    tasks.add(m.getTask());
+                    withTextLock(() -> taskText.put(m.getTask().getKey(), m.getTask()));
+                }
+                Task t = tasks.get(m.getId());
+                if (t == null) return;
+                if (m.isArchived()) {
+                    removeTask(t);
+                    return;
+                }
+                if (m.getTaskStatus() != null) tasks.setStatus(t, m.getTaskStatus());
+                if (m.getRating() != null) t.setRating(m.getRating());
+                if (m.getVersion() != null) t.setVersion(m.getVersion());
+                columns.put(t);
+                markShard(t);
+            }
+            case USER -> {
+                if (m.getUser() != null) users.put(m.getId(), m.getUser());
+                User u = users.get(m.getId());
+                if (m.getTotalPoints() != null && u instanceof Child ch)
+                    ch.setTotalPoints(m.getTotalPoints());
+                if (u != null && m.getVersion() != null) u.setVersion(m.getVersion());
+            }
+            case WISH -> {
+                if (m.getWish() != null) {
+                    wishes.put(m.getWish().getKey(), m.getWish());
+                    withTextLock(() -> wishText.put(m.getWish().getKey(), m.getWish()));
+                }
+                Wish w = wishes.get(IdGenerator.key(m.getId()));
+                if (w == null) return;
+                if (m.getWishStatus() != null) w.setStatus(m.getWishStatus());
+                if (m.getVersion() != null) w.setVersion(m.getVersion());
+            }
+        }
+    }
+
+    private void withTextLock(Runnable change) {
+        textLock.writeLock().lock();
+        try {
+            change.run();
+        } finally {
+            textLock.writeLock().unlock();
+        }
+    }
+
+    /** The record {@code m} changes, or null if it does not exist (yet). */
+    private Object recordOf(Mutation m) {
+        return switch (m.getType()) {
+            case TASK -> tasks.get(m.getId());
+            case USER -> users.get(m.getId());
+            case WISH -> wishes.get(IdGenerator.key(m.getId()));
+        };
+    }
+
+    private int versionOf(Mutation m) {
+        Object record = recordOf(m);
+        if (record instanceof Task t) return t.getVersion();
+        if (record instanceof User u) return u.getVersion();
+        if (record instanceof Wish w) return w.getVersion();
+        return 0;
+    }
+
+    /** Puts back everything {@code m} is about to change, as it is now. */
+    private Runnable undoFor(Mutation m) {
+        String id = m.getId();
+        switch (m.getType()) {
+            case TASK -> {
+                Task t = tasks.get(id);
+                if (t == null) return () -> {
+                    Task created = tasks.remove(id);
+                    if (created == null) return;
+                    columns.remove(created);
+                    withTextLock(() -> taskText.remove(created.getKey()));
+                };
+                Task.Status status = t.getStatus();
+                int rating = t.getRating(), version = t.getVersion();
+                return () -> {
+                    if (tasks.getByKey(t.getKey()) != t) { // archived or replaced
+                        tasks.add(t);
+                        withTextLock(() -> taskText.put(t.getKey(), t));
+                    }
+                    tasks.setStatus(t, status);
+                    t.setRating(rating);
+                    t.setVersion(version);
+                    columns.put(t);
+                    markShard(t);
+                };
+            }
+            case USER -> {
+                User u = users.get(id);
+                if (u == null) return () -> users.remove(id);
+                int points = u instanceof Child ch ? ch.getTotalPoints() : 0, version = u.getVersion();
+                return () -> {
+                    users.put(id, u);
+                    if (u instanceof Child ch) ch.setTotalPoints(points);
+                    u.setVersion(version);
+                };
+            }
+            default -> {
+                Wish w = wishes.get(IdGenerator.key(id));
+                if (w == null) return () -> {
+                    Wish created = wishes.remove(IdGenerator.key(id));
+                    if (created != null) withTextLock(() -> wishText.remove(created.getKey()));
+                };
+                Wish.Status status = w.getStatus();
+                int version = w.getVersion();
+                return () -> {
+                    wishes.put(w.getKey(), w);
+                    withTextLock(() -> wishText.put(w.getKey(), w));
+                    w.setStatus(status);
+                    w.setVersion(version);
+                };
+            }
+        }
+    }
+
+    private void removeTask(Task t) {
+        markShard(t);
+        tasks.remove(t.getTaskId());
+        columns.remove(t);
+        withTextLock(() -> taskText.remove(t.getKey()));
+    }
+
+    private void markShard(Task t) {
+        if (t != null && dataManager.isSharded()) dirtyShards.add(dataManager.shardOf(t.getAssignedToId()));
+    }
+
+    /**
+     * A change as the caller asked for it. It builds its patch from the current
+     * record, so it can be run again after a conflicting change from another
+     * instance; it returns null once its precondition no longer holds.
+     */
+    private static final class Op {
+        final Supplier<Mutation> change;
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        String key;     // record the last run changed
+        Runnable undo;  // reverts the last run while it is unwritten
+        Op dependent;   // a change that only holds while this one does, re-checked when this one is refused
+
+        Op(Supplier<Mutation> change) { this.change = change; }
+    }
+
+    /** Runs, applies and queues a change; the future completes once it is written, or with false if it was refused. */
+    private synchronized CompletableFuture<Boolean> record(Supplier<Mutation> change, Durability durability) {
+        return recordOp(change, durability).result;
+    }
+
+    private synchronized Op recordOp(Supplier<Mutation> change, Durability durability) {
+        Op op = new Op(change);
+        if (run(op) && durability != Durability.BUFFERED && !groupCommitScheduled && !writer.isShutdown()) {
+            groupCommitScheduled = true;
+            writer.schedule(this::flush, groupCommitMs, TimeUnit.MILLISECONDS);
+        }
+        return op;
+    }
+
+    private boolean run(Op op) {
+        Mutation m = op.change.get();
+        if (m == null) {
+            op.result.complete(false);
+            return false;
+        }
+        m.stamp(versionOf(m));
+        queue(m.getKey(), journal.encode(m));
+        pendingOps.computeIfAbsent(m.getKey(), k -> new ArrayList<>()).add(op);
+        op.key = m.getKey();
+        op.undo = undoFor(m);
+        apply(m);
+        return true;
+    }
+
+    /**
+     * Runs {@code op} again after a conflict. If it is refused now, its dependent
+     * change, when still queued, is undone and re-run with the rest of its record's
+     * changes, so it sees the refusal too.
+     */
+    private void rerun(Op op) {
+        if (run(op) || op.dependent == null) return;
+        String key = op.dependent.key;
+        List<Op> ops = pendingOps.get(key);
+        if (ops == null || !ops.contains(op.dependent)) return;
+        pendingOps.remove(key);
+        pending.remove(key);
+        for (int i = ops.size() - 1; i >= 0; i--) ops.get(i).undo.run();
+        for (Op o : ops) run(o);
+    }
+
+    /**
+     * Applies an entry another instance wrote. An unwritten change of ours to the
+     * same record was based on the version theirs replaced, and theirs reached the
+     * journal first: ours is undone and its operations re-run on top of theirs.
+     * Returns false if the entry was based on a version of the record other than
+     * ours, i.e. we missed a change to it.
+     */
+    private boolean applyForeign(Mutation m) {
+        List<Op> ops = pendingOps.remove(m.getKey());
+        if (ops != null) {
+            pending.remove(m.getKey());
+            for (int i = ops.size() - 1; i >= 0; i--) ops.get(i).undo.run();
+        }
+        boolean inStep = m.getBaseVersion() == null || recordOf(m) == null
+                || m.getBaseVersion() == versionOf(m);
+        if (!inStep)
+            System.out.println("Entry for " + m.getKey() + " is based on version " + m.getBaseVersion()
+                    + " but we have " + versionOf(m));
+        apply(m);
+        if (ops == null) return inStep;
+        conflicts++;
+        System.out.println("Conflict on " + m.getKey() + " (now version " + m.getVersion()
+                + "), retrying " + ops.size() + " change(s)");
+        for (Op op : ops) rerun(op);
+        return inStep;
+    }
+
+    private void queue(String key, JsonObject patch) {
+        JsonObject earlier = pending.get(key);
+        if (earlier == null) pending.put(key, patch);
+        else Journal.merge(earlier, patch);
+    }
+
+    private boolean commit(Supplier<Mutation> change, Durability durability) {
+        return await(record(change, durability), durability);
+    }
+
+    /**
+     * SYNC waits for the write and throws {@link UncheckedIOException} if it failed
+     * (the change stays queued and is retried); otherwise reports whether the
+     * change applied locally.
+     */
+    private boolean await(CompletableFuture<Boolean> result, Durability durability) {
+        if (durability != Durability.SYNC)
+            return !result.isDone() || (!result.isCompletedExceptionally() && result.join());
+        if (writer.isShutdown()) flush();
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) throw new UncheckedIOException(io);
+            throw e;
+        }
+    }
+
+    /** Changes re-run because another instance had changed the same record first. */
+    public synchronized int getConflictCount() { return conflicts; }
+
+    public long getFlushIntervalMs() { return flushIntervalMs; }
+
+    // ===== USERS =====
+    public synchronized List<User> getUsers() { return new ArrayList<>(users.values()); }
+    public synchronized User findUser(String userId) { return users.get(userId); }
+
+    public void addUser(User u, Durability durability) { commit(() -> Mutation.userCreated(u), durability); }
+
+    /** Adds to the child's current total, re-read if the change has to be retried. */
+    public void addPoints(Child ch, int points, Durability durability) {
+        commit(() -> {
+            Child current = users.get(ch.getUserId()) instanceof Child c ? c : ch;
+            return Mutation.userPoints(ch.getUserId(), current.getTotalPoints() + points);
+        }, durability);
+    }
+
+    // ===== TASKS =====
+    public synchronized List<Task> getTasks() { return new ArrayList<>(tasks.all()); }
+    public synchronized Task findTask(String taskId) { return tasks.get(taskId); }
+
+    public List<Task> findTasks(TaskQuery query) {
+        return findTasks(query, Integer.MAX_VALUE);
+    }
+
+    private synchronized List<Task> findTasks(TaskQuery query, int limit) {
+        List<Task> result = new ArrayList<>();
+        for (Task t : tasks.candidates(query)) {
+            if (result.size() >= limit) break;
+            if (query.matches(t)) result.add(t);
+        }
+        return result;
+    }
+
+    /**
+     * Live tasks whose title, description, child id or due date has a word starting
+     * with each word of {@code text} ("piano prac", "2026-05"), newest first.
+     * Archived tasks are not searched. Runs without the repository lock, so a
+     * task may change while it is being matched; an interrupted search throws
+     * {@link java.util.concurrent.CancellationException}.
+     */
+    public List<Task> searchTasks(String text, int limit) {
+        textLock.readLock().lock();
+        try {
+            return taskText.search(text, limit);
+        } finally {
+            textLock.readLock().unlock();
+        }
+    }
+
+    /** {@link #searchTasks(String, int)} restricted to {@code query}; blank text lists the first {@code limit} of it. */
+    public List<Task> searchTasks(String text, TaskQuery query, int limit) {
+        if (text == null || text.isBlank()) return findTasks(query, limit);
+        textLock.readLock().lock();
+        try {
+            return taskText.search(text, limit, query::matches);
+        } finally {
+            textLock.readLock().unlock();
+        }
+    }
+
+    private static String searchText(Task t) {
+        return Objects.toString(t.getTitle(), "") + " " + Objects.toString(t.getDescription(), "") + " "
+                + Objects.toString(t.getAssignedToId(), "") + " " + Objects.toString(t.getDueDate(), "");
+    }
+
+    public synchronized int countTasks(TaskQuery query) {
+        int n = 0;
+        for (Task t : tasks.candidates(query))
+            if (query.matches(t)) n++;
+        return n;
+    }
+
+    /** Like {@link #findTasks} but also searches archived tasks. */
+    public List<Task> findTaskHistory(TaskQuery query) {
+        List<Task> result = findTasks(query);
+        result.addAll(archive.query(query));
+        return result;
+    }
+
+    public int countTaskHistory(TaskQuery query) {
+        return countTasks(query) + archive.count(query);
+    }
+
+    /** Status counts and rating totals over live and archived tasks. */
+    public synchronized TaskStats taskStats() {
+        TaskStats stats = columns.stats();
+        stats.merge(archive.getStats());
+        return stats;
+    }
+
+    /** Each child's pending tasks that are overdue, due within {@code soonDays} days, or due later. */
+    public synchronized Map<String, TaskColumns.DueCounts> pendingByDueDate(int soonDays) {
+        return columns.pendingByDueDate(LocalDate.now(), soonDays);
+    }
+
+    /** {@link #taskStats()} per assigned child. */
+    public synchronized Map<String, TaskStats> taskStatsByChild() {
+        Map<String, TaskStats> result = archive.getStatsByChild();
+        columns.statsByAssignee().forEach((child, live) ->
+                result.computeIfAbsent(child, k -> new TaskStats()).merge(live));
+        return result;
+    }
+
+    public void addTask(Task t, Durability durability) { commit(() -> Mutation.taskCreated(t), durability); }
+
+    public void setTaskStatus(Task t, Task.Status status, Durability durability) {
+        commit(() -> Mutation.taskStatus(t.getTaskId(), status), durability);
+    }
+
+    /**
+     * Sets the status only while it is still {@code expected}, including when the
+     * change is retried after a conflict. With SYNC the result says whether it
+     * was written, and a failed write throws {@link UncheckedIOException};
+     * otherwise it says only whether it applied locally.
+     */
+    public boolean compareAndSetTaskStatus(Task t, Task.Status expected, Task.Status status,
+                                           Durability durability) {
+        return commit(() -> {
+            Task current = tasks.getByKey(t.getKey());
+            return current != null && current.getStatus() == expected
+                    ? Mutation.taskStatus(t.getTaskId(), status) : null;
+        }, durability);
+    }
+
+    /**
+     * Approves {@code t} while it is still {@code expected}, rates it ({@code rating}
+     * 0 leaves it unrated) and credits its points to the assigned child. Both
+     * changes are queued before either is written, so they reach the journal in
+     * the same batch, and a credit whose approval is refused after a conflict is
+     * dropped with it. Returns as {@link #compareAndSetTaskStatus}.
+     */
+    public boolean approveTask(Task t, Task.Status expected, int rating, Durability durability) {
+        boolean[] approved = {false};
+        Op approval;
+        synchronized (this) {
+            approval = recordOp(() -> {
+                Task current = tasks.getByKey(t.getKey());
+                approved[0] = current != null && current.getStatus() == expected;
+                return approved[0] ? Mutation.taskStatus(t.getTaskId(), Task.Status.APPROVED, rating) : null;
+            }, durability);
+            if (approved[0]) {
+                approval.dependent = recordOp(() -> approved[0] && users.get(t.getAssignedToId()) instanceof Child ch
+                        ? Mutation.userPoints(ch.getUserId(), ch.getTotalPoints() + t.getPoints()) : null,
+                        Durability.BUFFERED);
+            }
+        }
+        return await(approval.result, durability);
+    }
+
+    public void rateTask(Task t, int rating, Durability durability) {
+        commit(() -> Mutation.taskRating(t.getTaskId(), rating), durability);
+    }
+
+    // ===== WISHES =====
+    public synchronized List<Wish> getWishes() { return new ArrayList<>(wishes.values()); }
+    public synchronized Wish findWish(String wishId) { return wishes.get(IdGenerator.key(wishId)); }
+
+    /** Wishes whose name matches {@code text}, as in {@link #searchTasks}. */
+    public List<Wish> searchWishes(String text, int limit) {
+        textLock.readLock().lock();
+        try {
+            return wishText.search(text, limit);
+        } finally {
+            textLock.readLock().unlock();
+        }
+    }
+
+    public void addWish(Wish w, Durability durability) { commit(() -> Mutation.wishCreated(w), durability); }
+
+    public void setWishStatus(Wish w, Wish.Status status, Durability durability) {
+        commit(() -> Mutation.wishStatus(w.getWishId(), status), durability);
+    }
+
+    /** Like {@link #compareAndSetTaskStatus} for wishes. */
+    public boolean compareAndSetWishStatus(Wish w, Wish.Status expected, Wish.Status status,
+                                           Durability durability) {
+        return commit(() -> {
+            Wish current = wishes.get(w.getKey());
+            return current != null && current.getStatus() == expected
+                    ? Mutation.wishStatus(w.getWishId(), status) : null;
+        }, durability);
+    }
+
+    // ===== ARCHIVAL =====
+    /**
+     * Moves approved and rejected tasks due more than {@code afterDays} days ago
+     * into a new archive segment. Runs under the journal lock after catching up,
+     * so two instances never archive the same tasks, and keeps the lock until
+     * the tasks have left the journal too. The segment is written outside the
+     * repository lock; if one of its tasks changed meanwhile, it is written again
+     * under the lock so the archive never holds a stale copy.
+     */
+    public int archiveFinished(int afterDays) {
+        Set<Mutation.Type> changed = EnumSet.noneOf(Mutation.Type.class);
+        TaskQuery query = TaskQuery.all()
+                .withStatus(Task.Status.APPROVED, Task.Status.REJECTED)
+                .dueBetween(null, LocalDate.now().minusDays(afterDays + 1L));
+        int moved = 0;
+        synchronized (flushLock) {
+            journal.lock();
+            try {
+                catchUp(changed);
+                List<Task> finished;
+                int[] versions;
+                synchronized (this) {
+                    // left live by an archiver that crashed after committing its segment
+                    for (Task t : new ArrayList<>(tasks.all())) {
+                        if (archive.contains(t.getTaskId())) {
+                            record(() -> Mutation.taskArchived(t.getTaskId()), Durability.BUFFERED);
+                            moved++;
+                        }
+                    }
+                    finished = findTasks(query);
+                    versions = finished.stream().mapToInt(Task::getVersion).toArray();
+                }
+                String segment = finished.isEmpty() ? null : archive.writeSegment(finished);
+                if (segment != null) {
+                    synchronized (this) {
+                        if (changedSince(finished, versions)) {
+                            archive.discard(segment);
+                            finished = findTasks(query);
+                            segment = finished.isEmpty() ? null : archive.writeSegment(finished);
+                        }
+                        if (segment != null && !archive.commit(segment, finished)) {
+                            archive.discard(segment);
+                            segment = null;
+                        }
+                        if (segment != null) {
+                            for (Task t : finished) record(() -> Mutation.taskArchived(t.getTaskId()), Durability.BUFFERED);
+                            moved += finished.size();
+                        }
+                    }
+                }
+                if (moved > 0) flush();
+            } finally {
+                journal.unlock();
+            }
+        }
+        fireChanged(changed);
+        if (moved > 0) System.out.println("Archived " + moved + " finished tasks");
+        return moved;
+    }
+
+    /** Whether any of {@code tasks} left the live set or got a new version since {@code versions} were read. */
+    private boolean changedSince(List<Task> tasks, int[] versions) {
+        for (int i = 0; i < versions.length; i++) {
+            Task t = tasks.get(i);
+            if (this.tasks.getByKey(t.getKey()) != t || t.getVersion() != versions[i]) return true;
+        }
+        return false;
+    }
+
+    /** Runs {@link #archiveFinished} on the writer thread now and then every {@code periodMinutes}. */
+    public void scheduleArchival(int afterDays, long periodMinutes) {
+        if (afterDays < 0 || writer.isShutdown()) return;
+        writer.scheduleWithFixedDelay(() -> archiveFinished(afterDays), 0, periodMinutes, TimeUnit.MINUTES);
+    }
+
+    public synchronized boolean isDirty() { return !pending.isEmpty(); }
+
+    /**
+     * Under the journal lock: catches up with other instances, appends queued
+     * mutations and writes a compacted snapshot once the journal holds
+     * {@code snapshotEvery} entries. Safe to call from any thread.
+     */
+    public void flush() {
+        Set<Mutation.Type> changed = EnumSet.noneOf(Mutation.Type.class);
+        synchronized (flushLock) {
+            journal.lock();
+            try {
+                catchUp(changed);
+
+                Map<String, JsonObject> batch;
+                Map<String, List<Op>> batchOps;
+                synchronized (this) {
+                    batch = new LinkedHashMap<>(pending);
+                    batchOps = new HashMap<>(pendingOps);
+                    pending.clear();
+                    pendingOps.clear();
+                    groupCommitScheduled = false;
+                }
+
+                if (!journal.append(new ArrayList<>(batch.values()))) {
+                    // requeue ahead of anything changed meanwhile so the next flush retries
+                    synchronized (this) {
+                        Map<String, JsonObject> newer = new LinkedHashMap<>(pending);
+                        Map<String, List<Op>> newerOps = new HashMap<>(pendingOps);
+                        pending.clear();
+                        pendingOps.clear();
+                        pending.putAll(batch);
+                        pendingOps.putAll(batchOps);
+                        newer.forEach(this::queue);
+                        newerOps.forEach((k, ops) -> pendingOps.computeIfAbsent(k, x -> new ArrayList<>()).addAll(ops));
+                    }
+                    IOException failure = new IOException("Journal append failed");
+                    batchOps.values().forEach(ops -> ops.forEach(op -> op.result.completeExceptionally(failure)));
+                } else {
+                    batchOps.values().forEach(ops -> ops.forEach(op -> op.result.complete(true)));
+                    if (journal.getEntryCount() >= snapshotEvery) snapshot();
+                }
+            } finally {
+                journal.unlock();
+            }
+        }
+        fireChanged(changed);
+    }
+
+    /**
+     * Writes a compacted snapshot. Caller holds the journal lock, so nothing is
+     * appended meanwhile; the records are copied under the repository lock and
+     * written outside it, so readers and the EDT are not held up by the I/O.
+     */
+    private void snapshot() {
+        List<User> userCopy = new ArrayList<>();
+        List<Task> taskCopy = new ArrayList<>();
+        List<Wish> wishCopy = new ArrayList<>();
+        Set<Integer> shards;
+        long seq;
+        synchronized (this) {
+            if (!pending.isEmpty()) return;
+            seq = journal.getLastSeq();
+            for (User u : users.values()) userCopy.add(u.copy());
+            for (Task t : tasks.all()) taskCopy.add(t.copy());
+            for (Wish w : wishes.values()) wishCopy.add(w.copy());
+            shards = new HashSet<>(dirtyShards);
+            dirtyShards.clear();
+        }
+        boolean saved = dataManager.saveSnapshot(userCopy, taskCopy, wishCopy, seq, shards);
+        synchronized (this) {
+            if (saved) snapshotSeq = seq;
+            else dirtyShards.addAll(shards);
+        }
+        if (saved) System.out.println("Snapshot written at seq " + seq);
+    }
+
+    // ===== OTHER INSTANCES =====
+    public void addListener(DataListener l) { listeners.add(l); }
+    public void removeListener(DataListener l) { listeners.remove(l); }
+
+    /** Starts tailing changes other instances write to the shared data directory. */
+    public synchronized void startWatching() {
+        if (watcher != null) return;
+        try {
+            watcher = new DataWatcher(dataManager.getDataDir(), this::refresh);
+        } catch (IOException e) { e.printStackTrace(); }
+    }
+
+    /** Catches up with other instances and tells listeners which collections changed. */
+    void refresh() {
+        Set<Mutation.Type> changed = EnumSet.noneOf(Mutation.Type.class);
+        synchronized (flushLock) {
+            journal.lock();
+            try {
+                catchUp(changed);
+            } finally {
+                journal.unlock();
+            }
+        }
+        fireChanged(changed);
+    }
+
+    /**
+     * Applies journal entries other instances appended since the last look. When
+     * another instance has written a snapshot (and truncated the journal), or an
+     * entry shows we missed a change, everything is reloaded instead.
+     * Caller holds flushLock and the journal lock.
+     */
+    private void catchUp(Set<Mutation.Type> changed) {
+        boolean inStep = dataManager.loadSnapshotSeq() == snapshotSeqSeen();
+        if (inStep) {
+            synchronized (this) {
+                for (Mutation m : journal.readNew()) {
+                    inStep &= applyForeign(m);
+                    changed.add(m.getType());
+                }
+            }
+        }
+        if (!inStep) {
+            reloadAll();
+            changed.addAll(EnumSet.allOf(Mutation.Type.class));
+        }
+    }
+
+    private void fireChanged(Set<Mutation.Type> changed) {
+        if (changed.isEmpty()) return;
+        for (DataListener l : listeners) l.dataChanged(changed);
+    }
+
+    private synchronized long snapshotSeqSeen() { return snapshotSeq; }
+
+    /**
+     * Reloads from another instance's snapshot, then re-runs our unwritten
+     * changes on top of it. Existing Child objects are kept and updated so
+     * screens holding them stay current.
+     */
+    private void reloadAll() {
+        List<User> userList = dataManager.loadUsers();
+        List<Task> taskList = dataManager.loadTasks();
+        List<Wish> wishList = dataManager.loadWishes();
+        synchronized (this) {
+            Map<String, User> previous = new HashMap<>(users);
+            List<Op> ops = new ArrayList<>();
+            for (String key : pending.keySet()) ops.addAll(pendingOps.get(key));
+            pending.clear();
+            pendingOps.clear();
+            users.clear();
+            tasks.clear();
+            columns.clear();
+            wishes.clear();
+            dirtyShards.clear();
+            textLock.writeLock().lock();
+            try {
+                taskText.clear();
+                wishText.clear();
+                install(userList, taskList, wishList);
+            } finally {
+                textLock.writeLock().unlock();
+            }
+            for (Map.Entry<String, User> e : users.entrySet()) {
+                if (previous.get(e.getKey()) instanceof Child old && e.getValue() instanceof Child now) {
+                    old.setTotalPoints(now.getTotalPoints());
+                    old.setVersion(now.getVersion());
+                    e.setValue(old);
+                }
+            }
+            for (Op op : ops) rerun(op);
+            System.out.println("Reloaded data written by another instance");
+        }
+    }
+
+    /**
+     * Stops the writer thread, waiting for any write it has started, then writes
+     * what is left. Nothing is written after this returns, not even on exit.
+     */
+    public void close() {
+        if (watcher != null) watcher.close();
+        try {
+            Runtime.getRuntime().removeShutdownHook(flushOnExit);
+        } catch (IllegalStateException e) {
+            // already exiting; the hook is running or about to
+        }
+        writer.shutdown();
+        try {
+            writer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+}
@@ -0,0 +1,60 @@
+package persistence;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the data directory for writes to the journal or the snapshot marker
+ * and calls back once per burst of events, after a short quiet period.
+ */
+public class DataWatcher implements Closeable {
+
+    private static final Set<String> WATCHED = Set.of("journal.log", "snapshot.json");
+    private static final long QUIET_MS = 50;
+
+    private final WatchService service;
+    private final Thread thread;
+
+    public DataWatcher(File dir, Runnable onChange) throws IOException {
+        service = FileSystems.getDefault().newWatchService();
+        dir.toPath().register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        thread = new Thread(() -> {
+            try {
+                while (true) {
+                    boolean relevant = drain(service.take());
+                    WatchKey more;
+                    while ((more = service.poll(QUIET_MS, TimeUnit.MILLISECONDS)) != null)
+                        relevant |= drain(more);
+                    if (relevant) onChange.run();
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                // closed
+            }
+        }, "data-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static boolean drain(WatchKey key) {
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || WATCHED.contains(event.context().toString())) relevant = true;
+        }
+        key.reset();
+        return relevant;
+    }
+
+    @Override
+    public void close() {
+        try {
+            service.close();
+        } catch (IOException e) { e.printStackTrace(); }
+        thread.interrupt();
+    }
+}
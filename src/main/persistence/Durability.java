@@ -0,0 +1,11 @@
+package persistence;
+
+/** How soon a change made through {@link DataRepository} has to reach the disk. */
+public enum Durability {
+    /** Written by the next periodic flush. */
+    BUFFERED,
+    /** Written within the group-commit window, sharing one fsync with every change that arrives in it. */
+    GROUP_COMMIT,
+    /** Like GROUP_COMMIT, but the caller waits until the batch has been synced. */
+    SYNC
+}
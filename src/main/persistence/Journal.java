@@ -0,0 +1,222 @@
+package persistence;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only log of record patches, one JSON object per line. Every entry gets
+ * a sequence number so replay can skip whatever the newest snapshot already holds,
+ * and the id of the instance that wrote it, so instances sharing the data
+ * directory can tail each other's entries with {@link #readNew()}.
+ */
+public class Journal {
+
+    private final File file;
+    private final Gson gson;
+
+    private static final Map<String, ReentrantLock> PROCESS_LOCKS = new ConcurrentHashMap<>();
+
+    private final String origin = UUID.randomUUID().toString();
+    private final File lockFile;
+    private final ReentrantLock processLock;
+    private FileChannel lockChannel;
+    private FileLock fileLock;
+
+    private long lastSeq;
+    private int entryCount;
+    private long readOffset;
+
+    public Journal(File file, Gson gson) {
+        this.file = file;
+        this.gson = gson;
+        this.lockFile = new File(file.getParentFile(), file.getName().replace(".log", ".lock"));
+        this.processLock = PROCESS_LOCKS.computeIfAbsent(
+                lockFile.getAbsoluteFile().toPath().normalize().toString(), k -> new ReentrantLock());
+    }
+
+    /** Reads every entry newer than {@code afterSeq}. A torn last line from a crash is ignored. */
+    public synchronized List<Mutation> readAfter(long afterSeq) {
+        lastSeq = afterSeq;
+        entryCount = 0;
+        readOffset = 0;
+        return read(afterSeq, false);
+    }
+
+    /**
+     * Entries newer than {@code afterSeq}, read without moving this journal's
+     * position, for readers that do not hold the journal lock.
+     */
+    public synchronized List<Mutation> peekAfter(long afterSeq) {
+        long seq = lastSeq, offset = readOffset;
+        int count = entryCount;
+        readOffset = 0;
+        try {
+            return read(afterSeq, false);
+        } finally {
+            lastSeq = seq;
+            readOffset = offset;
+            entryCount = count;
+        }
+    }
+
+    /**
+     * Entries other instances appended since the last read, picked up by file
+     * position rather than seq. A line still being written is left for the next call.
+     */
+    public synchronized List<Mutation> readNew() {
+        if (file.length() < readOffset) readOffset = 0; // truncated behind our back
+        return read(Long.MIN_VALUE, true);
+    }
+
+    private List<Mutation> read(long afterSeq, boolean othersOnly) {
+        List<Mutation> result = new ArrayList<>();
+        if (!file.exists()) return result;
+
+        byte[] bytes;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            long length = raf.length();
+            if (length <= readOffset) return result;
+            bytes = new byte[(int) (length - readOffset)];
+            raf.seek(readOffset);
+            raf.readFully(bytes);
+        } catch (IOException e) { e.printStackTrace(); return result; }
+
+        int start = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != '\n') continue;
+            String line = new String(bytes, start, i - start, StandardCharsets.UTF_8);
+            start = i + 1;
+            if (line.isBlank()) continue;
+            Mutation m;
+            try {
+                m = gson.fromJson(line, Mutation.class);
+            } catch (JsonParseException e) {
+                System.out.println("Journal: ignoring unreadable entry after seq " + lastSeq);
+                continue;
+            }
+            if (m == null || m.getType() == null || m.getSeq() <= afterSeq) continue;
+            lastSeq = Math.max(lastSeq, m.getSeq());
+            if (othersOnly && origin.equals(m.getOrigin())) continue;
+            result.add(m);
+            entryCount++;
+        }
+        readOffset += start;
+        return result;
+    }
+
+    /**
+     * Serializes a mutation right away, so a record that is created and then
+     * changed before the next flush is journaled as it was at creation time.
+     */
+    public JsonObject encode(Mutation m) {
+        return gson.toJsonTree(m).getAsJsonObject();
+    }
+
+    /**
+     * Folds a later patch for the same record into an earlier, still unwritten one.
+     * A later full record replaces whatever the earlier patch held. The merged
+     * patch keeps the earlier base version, so it still spans every change it holds.
+     */
+    public static void merge(JsonObject into, JsonObject later) {
+        if (later.has("task") || later.has("user") || later.has("wish")) {
+            for (String field : new ArrayList<>(into.keySet()))
+                if (!field.equals("type") && !field.equals("id") && !field.equals("baseVersion"))
+                    into.remove(field);
+        }
+        for (Map.Entry<String, JsonElement> e : later.entrySet()) {
+            if (e.getKey().equals("seq")) continue;
+            if (e.getKey().equals("baseVersion") && into.has("baseVersion")) continue;
+            into.add(e.getKey(), e.getValue());
+        }
+    }
+
+    /**
+     * Takes the journal lock: a {@link FileLock} on journal.lock against other
+     * processes, plus an in-process lock since file locks are held per JVM.
+     * Reentrant; every call must be paired with {@link #unlock()}.
+     */
+    public void lock() {
+        processLock.lock();
+        if (processLock.getHoldCount() > 1) return;
+        try {
+            if (lockChannel == null || !lockChannel.isOpen())
+                lockChannel = FileChannel.open(lockFile.toPath(),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            fileLock = lockChannel.lock();
+        } catch (IOException e) {
+            // still exclusive within this process
+            e.printStackTrace();
+        }
+    }
+
+    public void unlock() {
+        if (processLock.getHoldCount() == 1 && fileLock != null) {
+            try {
+                fileLock.release();
+            } catch (IOException e) { e.printStackTrace(); }
+            fileLock = null;
+        }
+        processLock.unlock();
+    }
+
+    /**
+     * Appends the batch with a single fsync. A torn line left by a writer that
+     * crashed is ended first, so the new entries do not run into it.
+     */
+    public synchronized boolean append(List<JsonObject> entries) {
+        if (entries.isEmpty()) return true;
+        long seq = lastSeq;
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            if (endsMidLine()) w.write('\n');
+            for (JsonObject e : entries) {
+                e.addProperty("seq", ++seq);
+                e.addProperty("origin", origin);
+                w.write(gson.toJson(e));
+                w.write('\n');
+            }
+            w.flush();
+            out.getFD().sync();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+        lastSeq = seq;
+        entryCount += entries.size();
+        return true;
+    }
+
+    private boolean endsMidLine() throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            if (raf.length() == 0) return false;
+            raf.seek(raf.length() - 1);
+            return raf.read() != '\n';
+        }
+    }
+
+    /** Drops every entry; called once a snapshot covering them has been written. */
+    public synchronized void reset() {
+        try {
+            new FileOutputStream(file).close();
+            entryCount = 0;
+            readOffset = 0;
+        } catch (IOException e) { e.printStackTrace(); }
+    }
+
+    public synchronized long getLastSeq() { return lastSeq; }
+    public synchronized int getEntryCount() { return entryCount; }
+}
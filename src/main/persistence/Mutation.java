@@ -0,0 +1,124 @@
+package persistence;
+
+import model.Task;
+import model.User;
+import model.Wish;
+
+/**
+ * A patch to one record, as stored in the journal. A create carries the whole
+ * record; every other field is only present when it changed. Patches for the
+ * same record are merged before they are written, and every field sets rather
+ * than adjusts a value, so replaying an entry twice is harmless.
+ */
+public class Mutation {
+
+    public enum Type { TASK, USER, WISH }
+
+    private long seq;
+    private String origin;
+    private Type type;
+    private String id;
+
+    private Task task;
+    private User user;
+    private Wish wish;
+
+    private Task.Status taskStatus;
+    private Wish.Status wishStatus;
+    private Integer rating;
+    private Integer totalPoints;
+    private Boolean archived;
+
+    private Integer baseVersion;
+    private Integer version;
+
+    private Mutation(Type type, String id) {
+        this.type = type;
+        this.id = id;
+    }
+
+    public static Mutation taskCreated(Task t) {
+        Mutation m = new Mutation(Type.TASK, t.getTaskId());
+        m.task = t;
+        return m;
+    }
+
+    public static Mutation taskStatus(String taskId, Task.Status status) {
+        Mutation m = new Mutation(Type.TASK, taskId);
+        m.taskStatus = status;
+        return m;
+    }
+
+    /** A status change that also rates the task; a rating of 0 leaves the rating as it is. */
+    public static Mutation taskStatus(String taskId, Task.Status status, int rating) {
+        Mutation m = taskStatus(taskId, status);
+        if (rating > 0) m.rating = rating;
+        return m;
+    }
+
+    public static Mutation taskRating(String taskId, int rating) {
+        Mutation m = new Mutation(Type.TASK, taskId);
+        m.rating = rating;
+        return m;
+    }
+
+    /** The task moved to the cold archive and leaves the in-memory set. */
+    public static Mutation taskArchived(String taskId) {
+        Mutation m = new Mutation(Type.TASK, taskId);
+        m.archived = true;
+        return m;
+    }
+
+    public static Mutation userCreated(User u) {
+        Mutation m = new Mutation(Type.USER, u.getUserId());
+        m.user = u;
+        return m;
+    }
+
+    public static Mutation userPoints(String userId, int totalPoints) {
+        Mutation m = new Mutation(Type.USER, userId);
+        m.totalPoints = totalPoints;
+        return m;
+    }
+
+    public static Mutation wishCreated(Wish w) {
+        Mutation m = new Mutation(Type.WISH, w.getWishId());
+        m.wish = w;
+        return m;
+    }
+
+    public static Mutation wishStatus(String wishId, Wish.Status status) {
+        Mutation m = new Mutation(Type.WISH, wishId);
+        m.wishStatus = status;
+        return m;
+    }
+
+    /** Records that this change was made on top of {@code base} and produces the next version. */
+    void stamp(int base) {
+        baseVersion = base;
+        version = base + 1;
+    }
+
+    /** Key shared by every patch to the same record. */
+    public String getKey() { return type + ":" + id; }
+
+    public long getSeq() { return seq; }
+    /** Id of the app instance that wrote the entry. */
+    public String getOrigin() { return origin; }
+    public Type getType() { return type; }
+    public String getId() { return id; }
+    public Task getTask() { return task; }
+    public User getUser() { return user; }
+    public Wish getWish() { return wish; }
+    public Task.Status getTaskStatus() { return taskStatus; }
+    public Wish.Status getWishStatus() { return wishStatus; }
+    public Integer getRating() { return rating; }
+    public Integer getTotalPoints() { return totalPoints; }
+    public boolean isArchived() { return Boolean.TRUE.equals(archived); }
+    /**
+     * Version of the record this change was based on; null for entries written before
+     * versioning. Checked against our copy when another instance's entry is replayed.
+     */
+    public Integer getBaseVersion() { return baseVersion; }
+    public Integer getVersion() { return version; }
+}
@@ -0,0 +1,13 @@
+package persistence;
+
+/** On-disk format for the task and wish snapshots. Users always stay in JSON. */
+public enum StorageFormat {
+    JSON(".json"),
+    BINARY(".bin");
+
+    private final String extension;
+
+    StorageFormat(String extension) { this.extension = extension; }
+
+    public String getExtension() { return extension; }
+}
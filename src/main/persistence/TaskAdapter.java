@@ -0,0 +1,61 @@
+package persistence;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import model.Task;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/** Streams tasks field by field instead of going through Gson's reflective adapter. */
+public class TaskAdapter extends TypeAdapter<Task> {
+
+    @Override
+    public void write(JsonWriter out, Task t) throws IOException {
+        if (t == null) { out.nullValue(); return; }
+        out.beginObject();
+        out.name("taskId").value(t.getTaskId());
+        out.name("title").value(t.getTitle());
+        out.name("description").value(t.getDescription());
+        out.name("dueDate").value(t.getDueDate() == null ? null : t.getDueDate().toString());
+        out.name("points").value(t.getPoints());
+        out.name("status").value(t.getStatus() == null ? null : t.getStatus().name());
+        out.name("assignedToId").value(t.getAssignedToId());
+        out.name("rating").value(t.getRating());
+        out.name("version").value(t.getVersion());
+        out.endObject();
+    }
+
+    @Override
+    public Task read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) { in.nextNull(); return null; }
+        String taskId = null, title = null, description = null, assignedToId = null;
+        LocalDate dueDate = null;
+        Task.Status status = null;
+        int points = 0, rating = 0, version = 0;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) { in.skipValue(); continue; }
+            switch (name) {
+                case "taskId" -> taskId = in.nextString();
+                case "title" -> title = in.nextString();
+                case "description" -> description = in.nextString();
+                case "dueDate" -> dueDate = LocalDate.parse(in.nextString());
+                case "points" -> points = in.nextInt();
+                case "status" -> status = Task.Status.valueOf(in.nextString());
+                case "assignedToId" -> assignedToId = in.nextString();
+                case "rating" -> rating = in.nextInt();
+                case "version" -> version = in.nextInt();
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        Task t = new Task(taskId, title, description, dueDate, points, status, assignedToId, rating);
+        t.setVersion(version);
+        return t;
+    }
+}
@@ -0,0 +1,234 @@
+package persistence;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import model.IdGenerator;
+import model.Task;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Cold storage for finished tasks: gzip-compressed, write-once segments under
+ * data/archive/, plus an aggregates file with precomputed totals and, per
+ * segment, the assignees and due-date range it covers so queries can skip it.
+ *
+ * <p>Instances sharing the data directory archive one at a time under the
+ * journal lock: {@link #writeSegment} writes a segment under a unique name,
+ * then {@link #commit} re-reads the aggregates file, adds the segment and
+ * replaces the file. The cached aggregates are re-read whenever the file on
+ * disk changes, so totals include what other instances archived.
+ *
+ * <p>Each segment lists the ids it holds. The aggregates are replaced before
+ * the tasks are journaled as archived, so after a crash in between they are
+ * still live; {@link #contains} lets the repository drop them instead of
+ * counting or archiving them twice.
+ */
+public class TaskArchive {
+
+    private final File dir;
+    private final File aggregatesFile;
+    private final Gson gson;
+    private Aggregates aggregates;
+    private Object aggregatesStamp;
+
+    public TaskArchive(File dir, Gson gson) {
+        this.dir = dir;
+        this.aggregatesFile = new File(dir, "aggregates.json");
+        this.gson = gson;
+    }
+
+    private static class Aggregates {
+        private TaskStats total = new TaskStats();
+        private Map<String, TaskStats> byChild = new HashMap<>();
+        private List<Segment> segments = new ArrayList<>();
+        private transient Set<String> ids;
+
+        Set<String> ids() {
+            if (ids == null) {
+                ids = new HashSet<>();
+                for (Segment seg : segments) ids.addAll(seg.ids);
+            }
+            return ids;
+        }
+    }
+
+    private static class Segment {
+        private String file;
+        private int count;
+        private Set<String> ids = new HashSet<>();
+        private Set<String> assignees = new HashSet<>();
+        private String minDue;
+        private String maxDue;
+    }
+
+    private synchronized Aggregates aggregates() {
+        Object stamp = stamp();
+        if (aggregates == null || !Objects.equals(stamp, aggregatesStamp)) {
+            aggregates = readAggregates();
+            aggregatesStamp = stamp;
+        }
+        return aggregates;
+    }
+
+    private Aggregates readAggregates() {
+        if (aggregatesFile.exists()) {
+            try (Reader r = new InputStreamReader(new FileInputStream(aggregatesFile), StandardCharsets.UTF_8)) {
+                Aggregates loaded = gson.fromJson(r, Aggregates.class);
+                if (loaded != null) return loaded;
+            } catch (Exception e) { e.printStackTrace(); }
+        }
+        return new Aggregates();
+    }
+
+    /** Changes whenever the aggregates file is replaced; null while there is none. */
+    private Object stamp() {
+        try {
+            BasicFileAttributes a = Files.readAttributes(aggregatesFile.toPath(), BasicFileAttributes.class);
+            return Arrays.asList(a.lastModifiedTime(), a.size(), a.fileKey());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /** Totals over every archived task. */
+    public synchronized TaskStats getStats() { return aggregates().total; }
+
+    public synchronized TaskStats getStats(String childId) {
+        return aggregates().byChild.getOrDefault(childId, new TaskStats());
+    }
+
+    /** Copies of the per-child totals. */
+    public synchronized Map<String, TaskStats> getStatsByChild() {
+        Map<String, TaskStats> copy = new HashMap<>();
+        aggregates().byChild.forEach((child, stats) -> {
+            TaskStats s = new TaskStats();
+            s.merge(stats);
+            copy.put(child, s);
+        });
+        return copy;
+    }
+
+    public synchronized int size() { return aggregates().total.getTotal(); }
+
+    /** Whether a committed segment holds the task with {@code taskId}. */
+    public synchronized boolean contains(String taskId) { return aggregates().ids().contains(taskId); }
+
+    /**
+     * Writes {@code tasks} to a new segment file under a name no other instance
+     * will pick, and returns that name, or null if it could not be written.
+     * Nothing reads the segment until it is passed to {@link #commit}.
+     */
+    public String writeSegment(List<Task> tasks) {
+        try {
+            Files.createDirectories(dir.toPath());
+        } catch (IOException e) { e.printStackTrace(); return null; }
+
+        String file = "segment-" + IdGenerator.nextId() + ".json.gz";
+        boolean written = DataManager.writeAtomically(new File(dir, file), out -> {
+            try (OutputStream gz = Compression.GZIP.wrap(out)) {
+                Writer w = new OutputStreamWriter(gz, StandardCharsets.UTF_8);
+                gson.toJson(tasks, w);
+                w.flush();
+            }
+        });
+        return written ? file : null;
+    }
+
+    /** Deletes a segment that was written but will not be committed. */
+    public void discard(String file) {
+        new File(dir, file).delete();
+    }
+
+    /**
+     * Adds a segment holding {@code tasks} to the aggregates. The aggregates are
+     * re-read from disk first, so segments other instances committed are kept;
+     * the caller holds the journal lock. The cached aggregates only change once
+     * the new file is in place.
+     */
+    public synchronized boolean commit(String file, List<Task> tasks) {
+        Aggregates agg = readAggregates();
+        Segment seg = new Segment();
+        seg.file = file;
+        seg.count = tasks.size();
+
+        TaskStats total = new TaskStats();
+        Map<String, TaskStats> byChild = new HashMap<>();
+        LocalDate min = null, max = null;
+        for (Task t : tasks) {
+            total.add(t);
+            seg.ids.add(t.getTaskId());
+            byChild.computeIfAbsent(t.getAssignedToId(), k -> new TaskStats()).add(t);
+            seg.assignees.add(t.getAssignedToId());
+            LocalDate due = t.getDueDate();
+            if (due != null) {
+                if (min == null || due.isBefore(min)) min = due;
+                if (max == null || due.isAfter(max)) max = due;
+            }
+        }
+        seg.minDue = min == null ? null : min.toString();
+        seg.maxDue = max == null ? null : max.toString();
+
+        agg.total.merge(total);
+        byChild.forEach((child, stats) ->
+                agg.byChild.computeIfAbsent(child, k -> new TaskStats()).merge(stats));
+        agg.segments.add(seg);
+        agg.ids = null;
+        boolean written = DataManager.writeAtomically(aggregatesFile, out -> {
+            Writer w = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            gson.toJson(agg, w);
+            w.flush();
+        });
+        if (!written) return false;
+        aggregates = agg;
+        aggregatesStamp = stamp();
+        return true;
+    }
+
+    /** Answered from the aggregates unless the query filters on due date. */
+    public int count(TaskQuery query) {
+        if (query.hasDueRange()) return query(query).size();
+        TaskStats stats = query.getAssignedToId() == null ? getStats() : getStats(query.getAssignedToId());
+        int n = 0;
+        for (Task.Status s : Task.Status.values())
+            if (query.matchesStatus(s)) n += stats.getCount(s);
+        return n;
+    }
+
+    /** Archived tasks matching {@code query}; segments that cannot match are not opened. */
+    public List<Task> query(TaskQuery query) {
+        List<Segment> segments;
+        synchronized (this) { segments = new ArrayList<>(aggregates().segments); }
+
+        List<Task> result = new ArrayList<>();
+        for (Segment seg : segments) {
+            if (!mayMatch(seg, query)) continue;
+            try (JsonReader r = new JsonReader(new InputStreamReader(new GZIPInputStream(
+                    new FileInputStream(new File(dir, seg.file)), 1 << 16), StandardCharsets.UTF_8))) {
+                if (r.peek() == JsonToken.END_DOCUMENT) continue;
+                r.beginArray();
+                while (r.hasNext()) {
+                    Task t = gson.fromJson(r, Task.class);
+                    if (query.matches(t)) result.add(t);
+                }
+                r.endArray();
+            } catch (Exception e) { e.printStackTrace(); }
+        }
+        return result;
+    }
+
+    private static boolean mayMatch(Segment seg, TaskQuery q) {
+        if (q.getAssignedToId() != null && !seg.assignees.contains(q.getAssignedToId())) return false;
+        if (q.hasDueRange() && seg.minDue != null) {
+            if (q.getDueTo() != null && LocalDate.parse(seg.minDue).isAfter(q.getDueTo())) return false;
+            if (q.getDueFrom() != null && LocalDate.parse(seg.maxDue).isBefore(q.getDueFrom())) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,169 @@
+package persistence;
+
+import model.Task;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Column-per-field copy of the live tasks in primitive arrays, kept in step
+ * with the repository's {@link TaskIndex}. Aggregates are plain loops over
+ * the arrays instead of walking Task objects. Removal swaps the last row into
+ * the freed slot, so row order is not meaningful. Ratings are stored as bytes,
+ * due dates as epoch days. Not thread-safe; the repository guards it.
+ */
+public class TaskColumns {
+
+    private static final int STATUS_COUNT = Task.Status.values().length;
+    private static final byte NO_STATUS = -1;
+    private static final byte PENDING = (byte) Task.Status.PENDING.ordinal();
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    private int size;
+    private Object[] ids = new Object[16]; // Task.getKey()
+    private byte[] status = new byte[16];
+    private byte[] rating = new byte[16];
+    private int[] points = new int[16];
+    private int[] assignee = new int[16];
+    private int[] dueDay = new int[16];
+
+    private final Map<Object, Integer> rowOf = new HashMap<>();
+    private final Map<String, Integer> assigneeIds = new HashMap<>();
+    private final List<String> assigneeNames = new ArrayList<>();
+
+    /** Adds the task, or overwrites its row if it is already present. */
+    public void put(Task t) {
+        Object id = t.getKey();
+        Integer row = rowOf.get(id);
+        if (row == null) {
+            if (size == ids.length) grow();
+            row = size++;
+            rowOf.put(id, row);
+            ids[row] = id;
+        }
+        status[row] = t.getStatus() == null ? NO_STATUS : (byte) t.getStatus().ordinal();
+        rating[row] = (byte) t.getRating();
+        points[row] = t.getPoints();
+        assignee[row] = assigneeId(t.getAssignedToId());
+        dueDay[row] = t.getDueDate() == null ? NO_DATE : (int) t.getDueDate().toEpochDay();
+    }
+
+    public void remove(Task t) {
+        Integer row = rowOf.remove(t.getKey());
+        if (row == null) return;
+        int last = --size;
+        if (row != last) {
+            ids[row] = ids[last];
+            status[row] = status[last];
+            rating[row] = rating[last];
+            points[row] = points[last];
+            assignee[row] = assignee[last];
+            dueDay[row] = dueDay[last];
+            rowOf.put(ids[row], row);
+        }
+        ids[last] = null;
+    }
+
+    public void clear() {
+        Arrays.fill(ids, 0, size, null);
+        size = 0;
+        rowOf.clear();
+    }
+
+    public int size() { return size; }
+
+    /** Status counts, points per status and rating totals over every row. */
+    public TaskStats stats() {
+        int[] counts = new int[STATUS_COUNT + 1]; // slot 0 counts tasks without a status
+        long[] pointSums = new long[STATUS_COUNT + 1];
+        long ratingSum = 0;
+        int rated = 0;
+        for (int i = 0; i < size; i++) counts[status[i] + 1]++;
+        for (int i = 0; i < size; i++) pointSums[status[i] + 1] += points[i];
+        for (int i = 0; i < size; i++) {
+            int r = rating[i];
+            ratingSum += r > 0 ? r : 0;
+            rated += r > 0 ? 1 : 0;
+        }
+        return new TaskStats(Arrays.copyOfRange(counts, 1, counts.length),
+                Arrays.copyOfRange(pointSums, 1, pointSums.length), ratingSum, rated);
+    }
+
+    /** The same aggregates per assignee, in one pass. */
+    public Map<String, TaskStats> statsByAssignee() {
+        int n = assigneeNames.size();
+        int[] counts = new int[n * STATUS_COUNT];
+        long[] pointSums = new long[n * STATUS_COUNT];
+        long[] ratingSum = new long[n];
+        int[] rated = new int[n];
+        for (int i = 0; i < size; i++) {
+            int a = assignee[i];
+            if (a < 0) continue;
+            if (status[i] >= 0) {
+                counts[a * STATUS_COUNT + status[i]]++;
+                pointSums[a * STATUS_COUNT + status[i]] += points[i];
+            }
+            int r = rating[i];
+            ratingSum[a] += r > 0 ? r : 0;
+            rated[a] += r > 0 ? 1 : 0;
+        }
+
+        Map<String, TaskStats> result = new LinkedHashMap<>();
+        for (int a = 0; a < n; a++) {
+            int[] byStatus = Arrays.copyOfRange(counts, a * STATUS_COUNT, (a + 1) * STATUS_COUNT);
+            if (Arrays.stream(byStatus).sum() > 0 || rated[a] > 0)
+                result.put(assigneeNames.get(a), new TaskStats(byStatus,
+                        Arrays.copyOfRange(pointSums, a * STATUS_COUNT, (a + 1) * STATUS_COUNT),
+                        ratingSum[a], rated[a]));
+        }
+        return result;
+    }
+
+    /** Pending tasks of one assignee by due date, relative to the day they were counted. */
+    public record DueCounts(int overdue, int dueSoon, int later) { }
+
+    /**
+     * Per assignee, pending tasks due before {@code today}, due from today to
+     * {@code soonDays} days ahead, and due later or without a date.
+     */
+    public Map<String, DueCounts> pendingByDueDate(LocalDate today, int soonDays) {
+        int n = assigneeNames.size();
+        int[] overdue = new int[n], soon = new int[n], later = new int[n];
+        int first = (int) today.toEpochDay(), last = first + soonDays;
+        for (int i = 0; i < size; i++) {
+            int a = assignee[i];
+            if (a < 0 || status[i] != PENDING) continue;
+            int d = dueDay[i];
+            if (d == NO_DATE || d > last) later[a]++;
+            else if (d < first) overdue[a]++;
+            else soon[a]++;
+        }
+
+        Map<String, DueCounts> result = new LinkedHashMap<>();
+        for (int a = 0; a < n; a++)
+            if (overdue[a] + soon[a] + later[a] > 0)
+                result.put(assigneeNames.get(a), new DueCounts(overdue[a], soon[a], later[a]));
+        return result;
+    }
+
+    private int assigneeId(String userId) {
+        if (userId == null) return -1;
+        Integer id = assigneeIds.get(userId);
+        if (id == null) {
+            id = assigneeNames.size();
+            assigneeIds.put(userId, id);
+            assigneeNames.add(userId);
+        }
+        return id;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        status = Arrays.copyOf(status, capacity);
+        rating = Arrays.copyOf(rating, capacity);
+        points = Arrays.copyOf(points, capacity);
+        assignee = Arrays.copyOf(assignee, capacity);
+        dueDay = Arrays.copyOf(dueDay, capacity);
+    }
+}
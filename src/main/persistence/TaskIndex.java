@@ -0,0 +1,107 @@
+package persistence;
+
+import model.IdGenerator;
+import model.Task;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Primary hash index on {@link Task#getKey()} plus secondary indexes on assignee, status and
+ * due date. Status changes must go through {@link #setStatus} so the status
+ * index stays in step with the task. Tasks without a status or due date are
+ * left out of those indexes only. Not thread-safe; the repository guards it.
+ */
+public class TaskIndex {
+
+    private final Map<Object, Task> byId = new LinkedHashMap<>();
+    private final Map<String, Set<Task>> byAssignee = new HashMap<>();
+    private final Map<Task.Status, Set<Task>> byStatus = new EnumMap<>(Task.Status.class);
+    private final TreeMap<LocalDate, Set<Task>> byDueDate = new TreeMap<>();
+
+    public void add(Task t) {
+        Task old = byId.put(t.getKey(), t);
+        if (old != null) unindex(old);
+        bucket(byAssignee, t.getAssignedToId()).add(t);
+        if (t.getStatus() != null) bucket(byStatus, t.getStatus()).add(t);
+        if (t.getDueDate() != null) bucket(byDueDate, t.getDueDate()).add(t);
+    }
+
+    public Task remove(String taskId) {
+        Task t = byId.remove(IdGenerator.key(taskId));
+        if (t != null) unindex(t);
+        return t;
+    }
+
+    public void setStatus(Task t, Task.Status status) {
+        if (t.getStatus() != null) removeFrom(byStatus, t.getStatus(), t);
+        t.setStatus(status);
+        if (status != null) bucket(byStatus, status).add(t);
+    }
+
+    public void clear() {
+        byId.clear();
+        byAssignee.clear();
+        byStatus.clear();
+        byDueDate.clear();
+    }
+
+    public Task get(String taskId) { return byId.get(IdGenerator.key(taskId)); }
+    public Task getByKey(Object key) { return byId.get(key); }
+    public Collection<Task> all() { return byId.values(); }
+    public int size() { return byId.size(); }
+
+    public Set<Task> byAssignee(String userId) {
+        return byAssignee.getOrDefault(userId, Collections.emptySet());
+    }
+
+    public Set<Task> byStatus(Task.Status status) {
+        return byStatus.getOrDefault(status, Collections.emptySet());
+    }
+
+    public List<Task> dueBetween(LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, Set<Task>> range = byDueDate;
+        if (from != null) range = range.tailMap(from, true);
+        if (to != null) range = range.headMap(to, true);
+        List<Task> result = new ArrayList<>();
+        for (Set<Task> s : range.values()) result.addAll(s);
+        return result;
+    }
+
+    /** Smallest indexed candidate set for the query; callers still filter with {@link TaskQuery#matches}. */
+    public Collection<Task> candidates(TaskQuery q) {
+        Collection<Task> best = byId.values();
+        if (q.getAssignedToId() != null) best = byAssignee(q.getAssignedToId());
+        if (q.getStatuses() != null) {
+            int n = 0;
+            for (Task.Status s : q.getStatuses()) n += byStatus(s).size();
+            if (n < best.size()) {
+                List<Task> union = new ArrayList<>(n);
+                for (Task.Status s : q.getStatuses()) union.addAll(byStatus(s));
+                best = union;
+            }
+        }
+        if (q.hasDueRange() && best.size() > 1) {
+            List<Task> range = dueBetween(q.getDueFrom(), q.getDueTo());
+            if (range.size() < best.size()) best = range;
+        }
+        return best;
+    }
+
+    private void unindex(Task t) {
+        removeFrom(byAssignee, t.getAssignedToId(), t);
+        if (t.getStatus() != null) removeFrom(byStatus, t.getStatus(), t);
+        if (t.getDueDate() != null) removeFrom(byDueDate, t.getDueDate(), t);
+    }
+
+    private static <K> Set<Task> bucket(Map<K, Set<Task>> index, K key) {
+        return index.computeIfAbsent(key, k -> new LinkedHashSet<>());
+    }
+
+    private static <K> void removeFrom(Map<K, Set<Task>> index, K key, Task t) {
+        Set<Task> s = index.get(key);
+        if (s == null) return;
+        s.remove(t);
+        if (s.isEmpty()) index.remove(key);
+    }
+}
@@ -0,0 +1,65 @@
+package persistence;
+
+import model.Task;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Filter on assignee, status and due-date range. Each check can be evaluated
+ * on its own, so a streaming reader can reject a record as soon as one field fails.
+ */
+public class TaskQuery {
+
+    private String assignedToId;
+    private EnumSet<Task.Status> statuses;
+    private LocalDate dueFrom;
+    private LocalDate dueTo;
+
+    public static TaskQuery all() { return new TaskQuery(); }
+
+    public TaskQuery assignedTo(String userId) {
+        this.assignedToId = userId;
+        return this;
+    }
+
+    public TaskQuery withStatus(Task.Status first, Task.Status... rest) {
+        this.statuses = EnumSet.of(first, rest);
+        return this;
+    }
+
+    /** Both bounds are inclusive; pass null to leave a side open. */
+    public TaskQuery dueBetween(LocalDate from, LocalDate to) {
+        this.dueFrom = from;
+        this.dueTo = to;
+        return this;
+    }
+
+    public String getAssignedToId() { return assignedToId; }
+    public Set<Task.Status> getStatuses() { return statuses; }
+    public LocalDate getDueFrom() { return dueFrom; }
+    public LocalDate getDueTo() { return dueTo; }
+    public boolean hasDueRange() { return dueFrom != null || dueTo != null; }
+
+    public boolean matchesAssignee(String userId) {
+        return assignedToId == null || assignedToId.equals(userId);
+    }
+
+    public boolean matchesStatus(Task.Status status) {
+        return statuses == null || (status != null && statuses.contains(status));
+    }
+
+    public boolean matchesDueDate(LocalDate due) {
+        if (!hasDueRange()) return true;
+        if (due == null) return false;
+        if (dueFrom != null && due.isBefore(dueFrom)) return false;
+        return dueTo == null || !due.isAfter(dueTo);
+    }
+
+    public boolean matches(Task t) {
+        return matchesAssignee(t.getAssignedToId())
+                && matchesStatus(t.getStatus())
+                && matchesDueDate(t.getDueDate());
+    }
+}
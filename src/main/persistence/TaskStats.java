@@ -0,0 +1,57 @@
+package persistence;
+
+import model.Task;
+
+/** Status counts, points per status and rating totals over a set of tasks. */
+public class TaskStats {
+
+    private int[] byStatus = new int[Task.Status.values().length];
+    private long[] pointsByStatus = new long[Task.Status.values().length];
+    private long ratingSum;
+    private long ratedCount;
+
+    public TaskStats() { }
+
+    TaskStats(int[] byStatus, long[] pointsByStatus, long ratingSum, long ratedCount) {
+        this.byStatus = byStatus;
+        this.pointsByStatus = pointsByStatus;
+        this.ratingSum = ratingSum;
+        this.ratedCount = ratedCount;
+    }
+
+    public void add(Task t) {
+        if (t.getStatus() != null) {
+            byStatus[t.getStatus().ordinal()]++;
+            pointsByStatus[t.getStatus().ordinal()] += t.getPoints();
+        }
+        if (t.getRating() > 0) {
+            ratingSum += t.getRating();
+            ratedCount++;
+        }
+    }
+
+    public void merge(TaskStats other) {
+        for (int i = 0; i < byStatus.length && i < other.byStatus.length; i++)
+            byStatus[i] += other.byStatus[i];
+        for (int i = 0; i < pointsByStatus.length && i < other.pointsByStatus.length; i++)
+            pointsByStatus[i] += other.pointsByStatus[i];
+        ratingSum += other.ratingSum;
+        ratedCount += other.ratedCount;
+    }
+
+    public int getTotal() {
+        int n = 0;
+        for (int c : byStatus) n += c;
+        return n;
+    }
+
+    public int getCount(Task.Status status) { return byStatus[status.ordinal()]; }
+    /** Points of the tasks with {@code status}, e.g. points awarded for approved tasks. */
+    public long getPoints(Task.Status status) { return pointsByStatus[status.ordinal()]; }
+    public long getRatingSum() { return ratingSum; }
+    public long getRatedCount() { return ratedCount; }
+
+    public double getAverageRating() {
+        return ratedCount == 0 ? 0 : (double) ratingSum / ratedCount;
+    }
+}
@@ -0,0 +1,215 @@
+package persistence;
+
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * In-memory inverted index from lower-cased words to the documents containing
+ * them. Each word of a query matches every indexed word it is a prefix of, and
+ * a document must match all query words. Dates such as 2026-05-17 stay one
+ * word. Posting lists are sorted int arrays of document numbers, so the rarest query word is resolved first and the rest
+ * only test its candidates; the lists a prefix matches are merged through a heap.
+ * Once half the document numbers belong to removed documents they are renumbered.
+ * The indexed text of a document must not change while it is indexed.
+ * Not thread-safe; the repository guards it.
+ */
+public class TextIndex<T> {
+
+    private static final int MIN_COMPACT = 1024;
+
+    private final Function<T, String> text;
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Object, Integer> docOf = new HashMap<>();
+    private Object[] docs = new Object[16];
+    private int nextDoc;
+
+    /** @param text the searchable text of a value */
+    public TextIndex(Function<T, String> text) {
+        this.text = text;
+    }
+
+    /** Indexes {@code value} under {@code key}, e.g. {@link model.Task#getKey()}; if {@code key} is already indexed only the value is replaced. */
+    public void put(Object key, T value) {
+        Integer doc = docOf.get(key);
+        if (doc != null) {
+            docs[doc] = value;
+            return;
+        }
+        if (nextDoc == docs.length) docs = Arrays.copyOf(docs, docs.length * 2);
+        doc = nextDoc++;
+        docs[doc] = value;
+        docOf.put(key, doc);
+        for (String word : tokenize(text.apply(value)))
+            terms.computeIfAbsent(word, w -> new Postings()).add(doc);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void remove(Object key) {
+        Integer doc = docOf.remove(key);
+        if (doc == null) return;
+        for (String word : tokenize(text.apply((T) docs[doc]))) {
+            Postings p = terms.get(word);
+            if (p != null && p.remove(doc) && p.size == 0) terms.remove(word);
+        }
+        docs[doc] = null;
+        if (nextDoc >= MIN_COMPACT && docOf.size() < nextDoc / 2) compact();
+    }
+
+    /** Renumbers the live documents densely, keeping their order, and trims the posting lists. */
+    private void compact() {
+        int[] renumbered = new int[nextDoc];
+        Object[] live = new Object[Math.max(16, docOf.size() * 2)];
+        int n = 0;
+        for (int d = 0; d < nextDoc; d++) {
+            if (docs[d] == null) continue;
+            renumbered[d] = n;
+            live[n++] = docs[d];
+        }
+        docs = live;
+        nextDoc = n;
+        docOf.replaceAll((key, d) -> renumbered[d]);
+        for (Postings p : terms.values()) {
+            for (int i = 0; i < p.size; i++) p.docs[i] = renumbered[p.docs[i]];
+            if (p.docs.length > p.size * 2) p.docs = Arrays.copyOf(p.docs, Math.max(2, p.size));
+        }
+    }
+
+    public void clear() {
+        terms.clear();
+        docOf.clear();
+        docs = new Object[16];
+        nextDoc = 0;
+    }
+
+    public int size() { return docOf.size(); }
+
+    /** Up to {@code limit} values matching every word of {@code query}, most recently indexed first. */
+    public List<T> search(String query, int limit) {
+        return search(query, limit, v -> true);
+    }
+
+    /**
+     * As {@link #search(String, int)}, keeping only values accepted by {@code filter}.
+     * Throws {@link CancellationException} if the calling thread is interrupted.
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> search(String query, int limit, Predicate<? super T> filter) {
+        List<T> result = new ArrayList<>();
+        Set<String> words = tokenize(query);
+        if (words.isEmpty() || limit <= 0) return result;
+
+        List<Collection<Postings>> matches = new ArrayList<>();
+        for (String w : words) {
+            Collection<Postings> m = terms.subMap(w, w + Character.MAX_VALUE).values();
+            if (m.isEmpty()) return result;
+            matches.add(m);
+        }
+        matches.sort(Comparator.comparingLong(TextIndex::totalSize));
+
+        // walk the rarest word's lists newest first until the limit is reached; the
+        // other words only move forward, since candidates come in descending order
+        Merge rarest = new Merge(matches.get(0));
+        Merge[] others = new Merge[matches.size() - 1];
+        for (int m = 1; m < matches.size(); m++) others[m - 1] = new Merge(matches.get(m));
+        while (result.size() < limit) {
+            if (Thread.interrupted()) throw new CancellationException("search interrupted");
+            int doc = rarest.next();
+            if (doc < 0) break;
+            boolean all = true;
+            for (int m = 0; m < others.length && all; m++) all = others[m].contains(doc);
+            if (all && filter.test((T) docs[doc])) result.add((T) docs[doc]);
+        }
+        return result;
+    }
+
+    static Set<String> tokenize(String s) {
+        Set<String> words = new LinkedHashSet<>();
+        if (s == null) return words;
+        int start = -1;
+        for (int i = 0; i <= s.length(); i++) {
+            boolean word = i < s.length() && (Character.isLetterOrDigit(s.charAt(i)) || isDateDash(s, i));
+            if (word && start < 0) start = i;
+            else if (!word && start >= 0) {
+                words.add(s.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private static boolean isDateDash(String s, int i) {
+        return s.charAt(i) == '-' && i > 0 && i + 1 < s.length()
+                && Character.isDigit(s.charAt(i - 1)) && Character.isDigit(s.charAt(i + 1));
+    }
+
+    private static long totalSize(Collection<Postings> lists) {
+        long n = 0;
+        for (Postings p : lists) n += p.size;
+        return n;
+    }
+
+    /**
+     * The union of several posting lists read from the highest document down,
+     * with the list whose current document is highest on top of a heap.
+     */
+    private static class Merge {
+        private final Postings[] lists;
+        private final int[] pos;
+        private final PriorityQueue<Integer> heap;
+
+        Merge(Collection<Postings> postings) {
+            lists = postings.toArray(new Postings[0]);
+            pos = new int[lists.length];
+            heap = new PriorityQueue<>(Math.max(1, lists.length), (a, b) -> Integer.compare(current(b), current(a)));
+            for (int l = 0; l < lists.length; l++) {
+                pos[l] = lists[l].size - 1;
+                if (pos[l] >= 0) heap.add(l);
+            }
+        }
+
+        private int current(int l) { return lists[l].docs[pos[l]]; }
+
+        /** The highest document not yet returned, or -1 when all are used up. */
+        int next() {
+            if (heap.isEmpty()) return -1;
+            int doc = current(heap.peek());
+            while (!heap.isEmpty() && current(heap.peek()) == doc) {
+                int l = heap.poll();
+                if (--pos[l] >= 0) heap.add(l);
+            }
+            return doc;
+        }
+
+        /** Whether any list holds {@code doc}; successive calls must ask for lower documents. */
+        boolean contains(int doc) {
+            while (!heap.isEmpty() && current(heap.peek()) > doc) {
+                int l = heap.poll();
+                int i = Arrays.binarySearch(lists[l].docs, 0, pos[l] + 1, doc);
+                pos[l] = i >= 0 ? i : -i - 2;
+                if (pos[l] >= 0) heap.add(l);
+            }
+            return !heap.isEmpty() && current(heap.peek()) == doc;
+        }
+    }
+
+    /** Ascending document numbers; new documents always get the highest number. */
+    private static class Postings {
+        int[] docs = new int[2];
+        int size;
+
+        void add(int doc) {
+            if (size == docs.length) docs = Arrays.copyOf(docs, size * 2);
+            docs[size++] = doc;
+        }
+
+        boolean remove(int doc) {
+            int i = Arrays.binarySearch(docs, 0, size, doc);
+            if (i < 0) return false;
+            System.arraycopy(docs, i + 1, docs, i, size - i - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package persistence;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import model.Child;
+import model.User;
+
+import java.io.IOException;
+
+/**
+ * Streams users without reflection. The {@code role} field doubles as the type
+ * discriminator, so CHILD entries come back as {@link Child} with their points.
+ */
+public class UserAdapter extends TypeAdapter<User> {
+
+    @Override
+    public void write(JsonWriter out, User u) throws IOException {
+        if (u == null) { out.nullValue(); return; }
+        out.beginObject();
+        out.name("userId").value(u.getUserId());
+        out.name("email").value(u.getEmail());
+        out.name("password").value(u.getPassword());
+        out.name("role").value(u.getRole() == null ? null : u.getRole().name());
+        out.name("version").value(u.getVersion());
+        if (u instanceof Child ch) {
+            out.name("totalPoints").value(ch.getTotalPoints());
+            out.name("level").value(ch.getLevel());
+        }
+        out.endObject();
+    }
+
+    @Override
+    public User read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) { in.nextNull(); return null; }
+        String userId = null, email = "", password = "";
+        User.Role role = null;
+        int totalPoints = 0, version = 0;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) { in.skipValue(); continue; }
+            switch (name) {
+                case "userId" -> userId = in.nextString();
+                case "email" -> email = in.nextString();
+                case "password" -> password = in.nextString();
+                case "role" -> role = User.Role.valueOf(in.nextString());
+                case "totalPoints" -> totalPoints = in.nextInt();
+                case "version" -> version = in.nextInt();
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        User u;
+        if (role == User.Role.CHILD) {
+            Child ch = new Child(userId, email, password);
+            ch.setTotalPoints(totalPoints);
+            u = ch;
+        } else {
+            u = new User(userId, email, password, role);
+        }
+        u.setVersion(version);
+        return u;
+    }
+}
@@ -0,0 +1,57 @@
+package persistence;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import model.Wish;
+
+import java.io.IOException;
+
+/** Streams wishes field by field instead of going through Gson's reflective adapter. */
+public class WishAdapter extends TypeAdapter<Wish> {
+
+    @Override
+    public void write(JsonWriter out, Wish w) throws IOException {
+        if (w == null) { out.nullValue(); return; }
+        out.beginObject();
+        out.name("wishId").value(w.getWishId());
+        out.name("name").value(w.getName());
+        out.name("cost").value(w.getCost());
+        out.name("status").value(w.getStatus() == null ? null : w.getStatus().name());
+        out.name("requestedById").value(w.getRequestedById());
+        out.name("approvedById").value(w.getApprovedById());
+        out.name("requiredLevel").value(w.getRequiredLevel());
+        out.name("version").value(w.getVersion());
+        out.endObject();
+    }
+
+    @Override
+    public Wish read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) { in.nextNull(); return null; }
+        String wishId = null, name = null, requestedById = null, approvedById = null;
+        Wish.Status status = null;
+        int cost = 0, requiredLevel = 0, version = 0;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String field = in.nextName();
+            if (in.peek() == JsonToken.NULL) { in.skipValue(); continue; }
+            switch (field) {
+                case "wishId" -> wishId = in.nextString();
+                case "name" -> name = in.nextString();
+                case "cost" -> cost = in.nextInt();
+                case "status" -> status = Wish.Status.valueOf(in.nextString());
+                case "requestedById" -> requestedById = in.nextString();
+                case "approvedById" -> approvedById = in.nextString();
+                case "requiredLevel" -> requiredLevel = in.nextInt();
+                case "version" -> version = in.nextInt();
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        Wish w = new Wish(wishId, name, cost, status, requestedById, approvedById, requiredLevel);
+        w.setVersion(version);
+        return w;
+    }
+}
@@ -1,29 +1,59 @@
 package ui;
 
 import model.Child;
+import model.Task;
 import model.User;
+import persistence.Compression;
 import persistence.DataManager;
+import persistence.DataRepository;
+import persistence.Durability;
+import persistence.StorageFormat;
+import persistence.TaskQuery;
 import ui.panels.*;
 
 import javax.swing.*;
 import java.awt.*;
+import java.io.File;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class MainApp {
 
     private JFrame frame;
     private DataManager dataManager;
+    private DataRepository repository;
     private User loggedUser;
+    private CompletableFuture<?> dataReady;
+    private RoleSelectPanel roleSelectPanel;
+    // built once per user and shown again on later role selections
+    private final Map<String, JPanel> dashboards = new HashMap<>();
+    private final long startNanos = System.nanoTime();
 
     public MainApp() {
-        dataManager = new DataManager();
-        seedUsers();
+        dataManager = new DataManager(new File("data"),
+                "binary".equalsIgnoreCase(System.getProperty("kidtask.storage"))
+                        ? StorageFormat.BINARY : StorageFormat.JSON,
+                Integer.getInteger("kidtask.taskShards", 0));
+        for (String file : new String[]{"users", "tasks", "wishes"})
+            dataManager.setCompression(file, Compression.parse(System.getProperty("kidtask.compress." + file)));
+        repository = new DataRepository(dataManager,
+                Long.getLong("kidtask.flushIntervalMs", DataRepository.DEFAULT_FLUSH_INTERVAL_MS),
+                Integer.getInteger("kidtask.snapshotEvery", DataRepository.DEFAULT_SNAPSHOT_EVERY),
+                Long.getLong("kidtask.groupCommitMs", DataRepository.DEFAULT_GROUP_COMMIT_MS));
+        dataReady = repository.loadAsync().thenRun(this::seedUsers)
+                .thenRun(() -> {
+                    if (!Boolean.getBoolean("kidtask.noWatch")) repository.startWatching();
+                })
+                .thenRun(() -> repository.scheduleArchival(
+                        Integer.getInteger("kidtask.archiveAfterDays", DataRepository.DEFAULT_ARCHIVE_AFTER_DAYS), 60));
         SwingUtilities.invokeLater(this::createAndShowGui);
     }
 
 
     private void seedUsers() {
-        List<User> users = dataManager.loadUsers();
+        List<User> users = repository.getUsers();
 
         boolean hasChild = false;
         for (User u : users) {
@@ -34,27 +64,27 @@ public class MainApp {
         }
 
         if (!hasChild) {
-            users.add(new Child(
+            repository.addUser(new Child(
                     "child1",
                     "child1@mail.com",
                     "1234"
-            ));
+            ), Durability.BUFFERED);
 
-            users.add(new User(
+            repository.addUser(new User(
                     "parent1",
                     "parent@mail.com",
                     "1234",
                     User.Role.PARENT
-            ));
+            ), Durability.BUFFERED);
 
-            users.add(new User(
+            repository.addUser(new User(
                     "teacher1",
                     "teacher@mail.com",
                     "1234",
                     User.Role.TEACHER
-            ));
+            ), Durability.BUFFERED);
 
-            dataManager.saveUsers(users);
+            repository.flush();
         }
     }
 
@@ -78,13 +108,15 @@ public class MainApp {
         showRoleSelect();
 
         frame.setVisible(true);
+        System.out.printf("Startup: role selection shown after %d ms%n",
+                (System.nanoTime() - startNanos) / 1_000_000);
     }
 
     public void showRoleSelect() {
         frame.getContentPane().removeAll();
 
-        RoleSelectPanel rsp = new RoleSelectPanel(this::onRoleSelected);
-        frame.add(rsp, BorderLayout.CENTER);
+        if (roleSelectPanel == null) roleSelectPanel = new RoleSelectPanel(this::onRoleSelected);
+        frame.add(roleSelectPanel, BorderLayout.CENTER);
 
         frame.revalidate();
         frame.repaint();
@@ -93,9 +125,25 @@ public class MainApp {
 
     private void onRoleSelected(User.Role role) {
 
+        // data is still loading: wait off the EDT, then come back here
+        if (!dataReady.isDone()) {
+            frame.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+            if (role == User.Role.CHILD) showTaskPreview();
+            dataReady.whenComplete((v, e) -> SwingUtilities.invokeLater(() -> {
+                frame.setCursor(Cursor.getDefaultCursor());
+                if (e != null) {
+                    e.printStackTrace();
+                    JOptionPane.showMessageDialog(frame, "Could not load data: " + e.getMessage());
+                    return;
+                }
+                onRoleSelected(role);
+            }));
+            return;
+        }
+
         // 🔹 1️⃣ users.json’dan role’a uygun kullanıcıyı bul
         User selectedUser = null;
-        for (User u : dataManager.loadUsers()) {
+        for (User u : repository.getUsers()) {
             if (u.getRole() == role) {
                 selectedUser = u;
                 break;
@@ -111,19 +159,24 @@ public class MainApp {
 
         frame.getContentPane().removeAll();
 
-        JPanel panel;
-        switch (role) {
-            case CHILD:
-                panel = new ChildDashboardPanel(dataManager, this);
-                break;
-            case PARENT:
-                panel = new ParentDashboardPanel(dataManager, this);
-                break;
-            case TEACHER:
-                panel = new TeacherDashboardPanel(dataManager, this);
-                break;
-            default:
-                panel = new JPanel();
+        JPanel panel = dashboards.get(selectedUser.getUserId());
+        if (panel instanceof Dashboard d) {
+            d.refresh();
+        } else {
+            switch (role) {
+                case CHILD:
+                    panel = new ChildDashboardPanel(repository, this);
+                    break;
+                case PARENT:
+                    panel = new ParentDashboardPanel(repository, this);
+                    break;
+                case TEACHER:
+                    panel = new TeacherDashboardPanel(repository, this);
+                    break;
+                default:
+                    panel = new JPanel();
+            }
+            dashboards.put(selectedUser.getUserId(), panel);
         }
 
         frame.add(panel, BorderLayout.CENTER);
@@ -132,6 +185,35 @@ public class MainApp {
     }
 
 
+    /**
+     * While the repository is still loading, lists the child's pending tasks
+     * read straight from the data files; the dashboard replaces it once loaded.
+     */
+    private void showTaskPreview() {
+        CompletableFuture.supplyAsync(() -> {
+            for (User u : dataManager.loadUsers())
+                if (u.getRole() == User.Role.CHILD)
+                    return dataManager.queryTasks(TaskQuery.all()
+                            .assignedTo(u.getUserId()).withStatus(Task.Status.PENDING));
+            return List.<Task>of();
+        }).whenComplete((tasks, e) -> SwingUtilities.invokeLater(() -> {
+            if (e != null) e.printStackTrace();
+            if (e != null || tasks.isEmpty() || dataReady.isDone()) return;
+
+            DefaultListModel<String> items = new DefaultListModel<>();
+            for (Task t : tasks) items.addElement(t.getTitle() + " (due " + t.getDueDate() + ", " + t.getPoints() + " pts)");
+            JPanel preview = new JPanel(new BorderLayout());
+            preview.setBorder(BorderFactory.createTitledBorder("Your tasks (still loading...)"));
+            preview.add(new JScrollPane(new JList<>(items)), BorderLayout.CENTER);
+
+            frame.getContentPane().removeAll();
+            frame.add(preview, BorderLayout.CENTER);
+            frame.revalidate();
+            frame.repaint();
+        }));
+    }
+
+
     public static void main(String[] args) {
         new MainApp();
     }
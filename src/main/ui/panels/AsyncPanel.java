@@ -0,0 +1,126 @@
+package ui.panels;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Dashboard card whose data is fetched on a worker thread. {@link #reload()}
+ * asks the card for the work on the EDT, runs it in a SwingWorker and hands
+ * the result back to {@link #present} on the EDT. A newer load or
+ * {@link #cancel()} drops the one still running. While a load takes longer
+ * than {@link #INDICATOR_DELAY_MS} the card is greyed out with a
+ * "Loading..." note. Changes that wait for the disk, such as approvals, go
+ * through {@link #submit} so they do not block the EDT either.
+ */
+public abstract class AsyncPanel<T> extends JPanel {
+
+    private static final int INDICATOR_DELAY_MS = 150;
+
+    private SwingWorker<T, Void> running;
+    private boolean loading;
+    private final Timer indicator = new Timer(INDICATOR_DELAY_MS, e -> setLoading(true));
+
+    protected AsyncPanel() {
+        indicator.setRepeats(false);
+    }
+
+    /** Called on the EDT: read any UI state here and return the work to run in the background. */
+    protected abstract Supplier<T> request();
+
+    /** Called on the EDT with the result of the latest load. */
+    protected abstract void present(T result);
+
+    public void reload() {
+        cancel();
+        Supplier<T> work = request();
+        SwingWorker<T, Void> worker = new SwingWorker<>() {
+            @Override
+            protected T doInBackground() {
+                return work.get();
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled() || running != this) return;
+                running = null;
+                indicator.stop();
+                setLoading(false);
+                try {
+                    present(get());
+                } catch (InterruptedException | ExecutionException e) {
+                    e.printStackTrace();
+                }
+            }
+        };
+        running = worker;
+        indicator.restart();
+        worker.execute();
+    }
+
+    /**
+     * Runs {@code change} on a worker thread and hands its result to {@code then}
+     * on the EDT. If it throws, the error is shown and the card reloaded.
+     */
+    protected <R> void submit(Supplier<R> change, Consumer<R> then) {
+        new SwingWorker<R, Void>() {
+            @Override
+            protected R doInBackground() {
+                return change.get();
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    then.accept(get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    e.getCause().printStackTrace();
+                    JOptionPane.showMessageDialog(AsyncPanel.this,
+                            "The change could not be saved: " + e.getCause().getMessage(),
+                            "Save failed", JOptionPane.ERROR_MESSAGE);
+                    reload();
+                }
+            }
+        }.execute();
+    }
+
+    /** Drops the running load, if any; the card keeps showing its last result. */
+    public void cancel() {
+        if (running == null) return;
+        running.cancel(true);
+        running = null;
+        indicator.stop();
+        setLoading(false);
+    }
+
+    /** Cancels the loads of every card in {@code cards} except {@code keep}. */
+    public static void cancelOthers(Container cards, Component keep) {
+        for (Component c : cards.getComponents())
+            if (c != keep && c instanceof AsyncPanel<?> p) p.cancel();
+    }
+
+    private void setLoading(boolean loading) {
+        if (this.loading == loading) return;
+        this.loading = loading;
+        setCursor(loading ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : null);
+        repaint();
+    }
+
+    @Override
+    public void paint(Graphics g) {
+        super.paint(g);
+        if (!loading) return;
+        Graphics2D g2 = (Graphics2D) g.create();
+        g2.setColor(new Color(255, 255, 255, 160));
+        g2.fillRect(0, 0, getWidth(), getHeight());
+        g2.setColor(Color.DARK_GRAY);
+        String text = "Loading...";
+        FontMetrics fm = g2.getFontMetrics();
+        g2.drawString(text, (getWidth() - fm.stringWidth(text)) / 2, getHeight() / 2);
+        g2.dispose();
+    }
+}
@@ -0,0 +1,159 @@
+package ui.panels;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Grouped bar chart: one group per category, one bar per series in each group.
+ * The chart is drawn into an image on a background thread and only redrawn
+ * when the data or the size changes; until the new image is ready the last
+ * one is shown stretched, so resizing stays smooth with thousands of bars.
+ */
+public class ChartPanel extends JPanel {
+
+    /** One coloured row of values, indexed like the category labels. */
+    public record Series(String name, Color color, double[] values) { }
+
+    private static final int PAD = 10;
+    private static final String NO_DATA = "No data available";
+
+    private static final ExecutorService RENDERER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "chart-renderer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** Everything a render needs, captured on the EDT. */
+    private record Request(String[] labels, List<Series> series, Font font, Color foreground,
+                           int width, int height, int generation) { }
+
+    private String[] labels;
+    private List<Series> series = List.of();
+    private int generation;
+
+    private BufferedImage image;
+    private int imageGeneration = -1;
+    private Request pending;
+    private final AtomicReference<Request> latest = new AtomicReference<>();
+
+    /**
+     * @param labels category names under each group, or null for none
+     * @param series the bars; a legend is drawn when there is more than one
+     */
+    public void setData(String[] labels, List<Series> series) {
+        this.labels = labels;
+        this.series = List.copyOf(series);
+        generation++;
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Insets in = getInsets();
+        int w = getWidth() - in.left - in.right;
+        int h = getHeight() - in.top - in.bottom;
+        if (w <= 0 || h <= 0) return;
+
+        boolean current = image != null && imageGeneration == generation
+                && image.getWidth() == w && image.getHeight() == h;
+        if (!current) requestRender(w, h);
+        if (image != null) g.drawImage(image, in.left, in.top, w, h, null);
+    }
+
+    private void requestRender(int w, int h) {
+        if (pending != null && pending.width() == w && pending.height() == h && pending.generation() == generation)
+            return;
+        Request request = new Request(labels, series, getFont(), getForeground(), w, h, generation);
+        pending = request;
+        latest.set(request);
+        RENDERER.execute(() -> {
+            if (latest.get() != request) return; // a newer size or data set is queued
+            BufferedImage rendered = render(request);
+            SwingUtilities.invokeLater(() -> {
+                if (pending == request) pending = null;
+                if (request.generation() != generation) return;
+                image = rendered;
+                imageGeneration = request.generation();
+                repaint();
+            });
+        });
+    }
+
+    private static BufferedImage render(Request r) {
+        BufferedImage img = new BufferedImage(r.width(), r.height(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = img.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setFont(r.font());
+        FontMetrics fm = g.getFontMetrics();
+
+        int categories = 0;
+        double max = 0;
+        for (Series s : r.series()) {
+            categories = Math.max(categories, s.values().length);
+            for (double v : s.values()) max = Math.max(max, v);
+        }
+
+        if (max <= 0) {
+            g.setColor(r.foreground());
+            g.drawString(NO_DATA, (r.width() - fm.stringWidth(NO_DATA)) / 2, r.height() / 2);
+            g.dispose();
+            return img;
+        }
+
+        int top = PAD + (r.series().size() > 1 ? drawLegend(g, fm, r) : 0);
+        int bottom = r.height() - PAD - (r.labels() != null ? fm.getHeight() : 0);
+        int plotH = Math.max(0, bottom - top);
+
+        double groupW = (r.width() - 2.0 * PAD) / categories;
+        double gap = groupW * 0.15;
+        double barW = (groupW - 2 * gap) / r.series().size();
+
+        for (int s = 0; s < r.series().size(); s++) {
+            Series series = r.series().get(s);
+            g.setColor(series.color());
+            double[] values = series.values();
+            for (int c = 0; c < values.length; c++) {
+                int barH = (int) Math.round(values[c] / max * plotH);
+                int x = (int) (PAD + c * groupW + gap + s * barW);
+                g.fillRect(x, bottom - barH, Math.max(1, (int) Math.ceil(barW)), barH);
+            }
+        }
+
+        if (r.labels() != null) {
+            g.setColor(r.foreground());
+            int baseline = r.height() - PAD - fm.getDescent();
+            int nextFree = Integer.MIN_VALUE; // skip labels that would overlap the previous one
+            for (int c = 0; c < Math.min(categories, r.labels().length); c++) {
+                String label = r.labels()[c];
+                int lw = fm.stringWidth(label);
+                int x = (int) (PAD + c * groupW + (groupW - lw) / 2);
+                if (x < nextFree) continue;
+                g.drawString(label, x, baseline);
+                nextFree = x + lw + fm.charWidth(' ');
+            }
+        }
+
+        g.dispose();
+        return img;
+    }
+
+    /** Draws a colour key across the top; returns the height it used. */
+    private static int drawLegend(Graphics2D g, FontMetrics fm, Request r) {
+        int box = fm.getAscent();
+        int x = PAD;
+        for (Series s : r.series()) {
+            g.setColor(s.color());
+            g.fillRect(x, PAD, box, box);
+            g.setColor(r.foreground());
+            g.drawString(s.name(), x + box + 4, PAD + fm.getAscent());
+            x += box + 4 + fm.stringWidth(s.name()) + 2 * PAD;
+        }
+        return fm.getHeight() + PAD;
+    }
+}
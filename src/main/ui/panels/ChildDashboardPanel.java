@@ -1,31 +1,32 @@
 package ui.panels;
 
 import model.*;
-import persistence.DataManager;
+import persistence.DataListener;
+import persistence.DataRepository;
+import persistence.Durability;
+import persistence.Mutation;
+import persistence.TaskQuery;
 import ui.MainApp;
 
 import javax.swing.*;
-import javax.swing.table.AbstractTableModel;
 import java.awt.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
 
-public class ChildDashboardPanel extends JPanel {
+public class ChildDashboardPanel extends JPanel implements Dashboard {
 
-    private final DataManager dataManager;
+    private static final Color ACTIVITY_COLOR = new Color(120,170,220);
+
+    private final DataRepository repository;
     private final MainApp mainApp;
     private final Child loggedChild;
 
-    private final CardLayout cardLayout = new CardLayout();
-    private final JPanel centerCards = new JPanel(cardLayout);
-
-    private HomePanel homePanel;
-    private AssignedTasksPanel assignedPanel;
-    private CompletedTasksPanel completedPanel;
-    private WishesPanel wishesPanel;
+    private final LazyCards centerCards = new LazyCards();
 
-    public ChildDashboardPanel(DataManager dm, MainApp app) {
-        this.dataManager = dm;
+    public ChildDashboardPanel(DataRepository repo, MainApp app) {
+        this.repository = repo;
         this.mainApp = app;
 
         User user = app.getLoggedUser();
@@ -34,7 +35,7 @@ public class ChildDashboardPanel extends JPanel {
             throw new IllegalStateException();
         }
 
-        this.loggedChild = new Child(
+        this.loggedChild = user instanceof Child ch ? ch : new Child(
                 user.getUserId(),
                 user.getEmail(),
                 user.getPassword()
@@ -46,18 +47,17 @@ public class ChildDashboardPanel extends JPanel {
         add(createTopBar(), BorderLayout.NORTH);
         add(createLeftMenu(), BorderLayout.WEST);
 
-        homePanel = new HomePanel();
-        assignedPanel = new AssignedTasksPanel();
-        completedPanel = new CompletedTasksPanel();
-        wishesPanel = new WishesPanel();
-
-        centerCards.add(homePanel, "HOME");
-        centerCards.add(assignedPanel, "ASSIGNED");
-        centerCards.add(completedPanel, "COMPLETED");
-        centerCards.add(wishesPanel, "WISHES");
+        centerCards.addCard("HOME", HomePanel::new);
+        centerCards.addCard("ASSIGNED", AssignedTasksPanel::new);
+        centerCards.addCard("COMPLETED", CompletedTasksPanel::new);
+        centerCards.addCard("WISHES", WishesPanel::new);
 
         add(centerCards, BorderLayout.CENTER);
-        cardLayout.show(centerCards, "HOME");
+        centerCards.show("HOME");
+    }
+
+    public void refresh() {
+        centerCards.refresh();
     }
 
 
@@ -75,6 +75,29 @@ public class ChildDashboardPanel extends JPanel {
     }
 
 
+    private final DataListener dataListener =
+            changed -> SwingUtilities.invokeLater(() -> onDataChanged(changed));
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        repository.addListener(dataListener);
+    }
+
+    @Override
+    public void removeNotify() {
+        repository.removeListener(dataListener);
+        super.removeNotify();
+    }
+
+    /** Refreshes the visible card if it shows what another instance changed. */
+    private void onDataChanged(Set<Mutation.Type> changed) {
+        centerCards.reloadIfShowing("HOME");
+        if (changed.contains(Mutation.Type.TASK)) centerCards.reloadIfShowing("ASSIGNED", "COMPLETED");
+        if (changed.contains(Mutation.Type.WISH)) centerCards.reloadIfShowing("WISHES");
+    }
+
+
     private JPanel createLeftMenu() {
         JPanel p = new JPanel();
         p.setLayout(new BoxLayout(p, BoxLayout.Y_AXIS));
@@ -85,10 +108,10 @@ public class ChildDashboardPanel extends JPanel {
         JButton completed = new JButton("Completed");
         JButton wishes = new JButton("My Wishes");
 
-        home.addActionListener(e -> { homePanel.reload(); cardLayout.show(centerCards, "HOME"); });
-        tasks.addActionListener(e -> { assignedPanel.reload(); cardLayout.show(centerCards, "ASSIGNED"); });
-        completed.addActionListener(e -> { completedPanel.reload(); cardLayout.show(centerCards, "COMPLETED"); });
-        wishes.addActionListener(e -> { wishesPanel.reload(); cardLayout.show(centerCards, "WISHES"); });
+        home.addActionListener(e -> centerCards.show("HOME"));
+        tasks.addActionListener(e -> centerCards.show("ASSIGNED"));
+        completed.addActionListener(e -> centerCards.show("COMPLETED"));
+        wishes.addActionListener(e -> centerCards.show("WISHES"));
 
         for (JButton b : List.of(home, tasks, completed, wishes)) {
             b.setAlignmentX(Component.CENTER_ALIGNMENT);
@@ -101,7 +124,9 @@ public class ChildDashboardPanel extends JPanel {
     }
 
 
-    private class HomePanel extends JPanel {
+    private record HomeData(long pending, long completed, long wishCount) { }
+
+    private class HomePanel extends AsyncPanel<HomeData> {
 
         private JLabel pointsLbl = new JLabel();
         private JLabel motivationLbl = new JLabel();
@@ -133,25 +158,20 @@ public class ChildDashboardPanel extends JPanel {
 
             add(hero, BorderLayout.NORTH);
             add(cardsPanel, BorderLayout.CENTER);
-            add(new MiniChartPanel(), BorderLayout.SOUTH);
-
-            reload();
+            add(createActivityChart(), BorderLayout.SOUTH);
         }
 
-        void reload() {
-            long pending = dataManager.loadTasks().stream()
-                    .filter(t -> t.getAssignedToId().equals(loggedChild.getUserId()))
-                    .filter(t -> t.getStatus() == Task.Status.PENDING)
-                    .count();
-
-            long completed = dataManager.loadTasks().stream()
-                    .filter(t -> t.getAssignedToId().equals(loggedChild.getUserId()))
-                    .filter(t -> t.getStatus() != Task.Status.PENDING)
-                    .count();
+        protected Supplier<HomeData> request() {
+            return () -> new HomeData(
+                    repository.countTasks(pendingQuery()),
+                    repository.countTaskHistory(completedQuery()),
+                    myWishes().size());
+        }
 
-            long wishCount = dataManager.loadWishes().stream()
-                    .filter(w -> w.getRequestedById().equals(loggedChild.getUserId()))
-                    .count();
+        protected void present(HomeData data) {
+            long pending = data.pending();
+            long completed = data.completed();
+            long wishCount = data.wishCount();
 
             int pts = loggedChild.getTotalPoints();
 
@@ -174,6 +194,15 @@ public class ChildDashboardPanel extends JPanel {
             cardsPanel.repaint();
         }
 
+        private ChartPanel createActivityChart() {
+            ChartPanel chart = new ChartPanel();
+            chart.setPreferredSize(new Dimension(300,140));
+            chart.setBorder(BorderFactory.createTitledBorder("📈 Weekly Activity"));
+            chart.setData(null, List.of(new ChartPanel.Series("Activity", ACTIVITY_COLOR,
+                    new double[]{1,2,3,2,4,3,5})));
+            return chart;
+        }
+
         private JPanel infoCard(String title, long value, Color bg) {
             JPanel p = new JPanel();
             p.setLayout(new BoxLayout(p, BoxLayout.Y_AXIS));
@@ -196,84 +225,67 @@ public class ChildDashboardPanel extends JPanel {
     }
 
 
-    private class MiniChartPanel extends JPanel {
-        private final int[] data = {1,2,3,2,4,3,5};
+    private TaskQuery pendingQuery() {
+        return TaskQuery.all()
+                .assignedTo(loggedChild.getUserId())
+                .withStatus(Task.Status.PENDING);
+    }
 
-        MiniChartPanel() {
-            setPreferredSize(new Dimension(300,140));
-            setBorder(BorderFactory.createTitledBorder("📈 Weekly Activity"));
-        }
+    private TaskQuery completedQuery() {
+        return TaskQuery.all()
+                .assignedTo(loggedChild.getUserId())
+                .withStatus(Task.Status.COMPLETED, Task.Status.APPROVED, Task.Status.REJECTED);
+    }
 
-        protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
-            int w = getWidth();
-            int h = getHeight();
-            int bw = w / (data.length * 2);
-            int x = bw;
-
-            for (int v : data) {
-                g.setColor(new Color(120,170,220));
-                g.fillRect(x, h - v*20 - 20, bw, v*20);
-                x += bw * 2;
-            }
-        }
+
+    private List<Wish> myWishes() {
+        List<Wish> result = new ArrayList<>();
+        for (Wish w : repository.getWishes())
+            if (w.getRequestedById().equals(loggedChild.getUserId())) result.add(w);
+        return result;
     }
 
 
-    private class AssignedTasksPanel extends JPanel {
-        private TaskTableModel model = new TaskTableModel(false);
+    private class AssignedTasksPanel extends AsyncPanel<List<Task>> {
+        private TaskTableModel model = new TaskTableModel();
 
         AssignedTasksPanel() {
             setLayout(new BorderLayout());
             add(new JScrollPane(new JTable(model)), BorderLayout.CENTER);
-            reload();
         }
 
-        void reload() {
-            model.reload(dataManager.loadTasks(), loggedChild.getUserId());
+        protected Supplier<List<Task>> request() {
+            return () -> repository.findTasks(pendingQuery());
+        }
+
+        protected void present(List<Task> tasks) {
+            model.update(tasks);
         }
     }
 
-    private class CompletedTasksPanel extends JPanel {
-        private TaskTableModel model = new TaskTableModel(true);
+    private class CompletedTasksPanel extends AsyncPanel<List<Task>> {
+        private TaskTableModel model = new TaskTableModel();
 
         CompletedTasksPanel() {
             setLayout(new BorderLayout());
             add(new JScrollPane(new JTable(model)), BorderLayout.CENTER);
-            reload();
         }
 
-        void reload() {
-            model.reload(dataManager.loadTasks(), loggedChild.getUserId());
+        protected Supplier<List<Task>> request() {
+            // reads archived tasks from disk
+            return () -> repository.findTaskHistory(completedQuery());
         }
-    }
-
-    private static class TaskTableModel extends AbstractTableModel {
-        private final boolean completedOnly;
-        private final String[] cols = {"Title", "Due Date", "Points", "Status"};
-        private List<Task> list = new ArrayList<>();
 
-        TaskTableModel(boolean completedOnly) {
-            this.completedOnly = completedOnly;
+        protected void present(List<Task> tasks) {
+            model.update(tasks);
         }
+    }
 
-        void reload(List<Task> tasks, String childId) {
-            list.clear();
-            for (Task t : tasks) {
-                if (!t.getAssignedToId().equals(childId)) continue;
-                if (completedOnly && t.getStatus() == Task.Status.PENDING) continue;
-                if (!completedOnly && t.getStatus() != Task.Status.PENDING) continue;
-                list.add(t);
-            }
-            fireTableDataChanged();
-        }
+    private static class TaskTableModel extends KeyedTableModel<Task> {
 
-        public int getRowCount() { return list.size(); }
-        public int getColumnCount() { return cols.length; }
-        public String getColumnName(int c) { return cols[c]; }
+        TaskTableModel() { super(Task::getKey, "Title", "Due Date", "Points", "Status"); }
 
-        public Object getValueAt(int r, int c) {
-            Task t = list.get(r);
+        protected Object value(Task t, int c) {
             return switch (c) {
                 case 0 -> t.getTitle();
                 case 1 -> t.getDueDate();
@@ -284,18 +296,37 @@ public class ChildDashboardPanel extends JPanel {
     }
 
 
-    private class WishesPanel extends JPanel {
+    private class WishesPanel extends AsyncPanel<List<Wish>> {
 
-        private JPanel listPanel = new JPanel();
-        private JScrollPane scroll;
+        private final DefaultListModel<Wish> listModel = new DefaultListModel<>();
+        private final JList<Wish> list = new JList<>(listModel);
+        private int hovered = -1;
 
         WishesPanel() {
             setLayout(new BorderLayout(10,10));
             setBorder(BorderFactory.createTitledBorder("My Wishes"));
 
-            listPanel.setLayout(new BoxLayout(listPanel, BoxLayout.Y_AXIS));
-            scroll = new JScrollPane(listPanel);
-            add(scroll, BorderLayout.CENTER);
+            // fixed cell size: no card is measured, only the visible ones are painted;
+            // the cards still stretch to the viewport width
+            list.setFixedCellHeight(75);
+            list.setFixedCellWidth(200);
+            list.setCellRenderer(new WishCardRenderer());
+            list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+
+            java.awt.event.MouseAdapter hover = new java.awt.event.MouseAdapter() {
+                public void mouseMoved(java.awt.event.MouseEvent evt) {
+                    int i = list.locationToIndex(evt.getPoint());
+                    if (i >= 0 && !list.getCellBounds(i, i).contains(evt.getPoint())) i = -1;
+                    setHovered(i);
+                }
+                public void mouseExited(java.awt.event.MouseEvent evt) {
+                    setHovered(-1);
+                }
+            };
+            list.addMouseListener(hover);
+            list.addMouseMotionListener(hover);
+
+            add(new JScrollPane(list), BorderLayout.CENTER);
 
             JButton add = new JButton("➕ Request New Wish");
             add.addActionListener(e -> createWish());
@@ -303,49 +334,65 @@ public class ChildDashboardPanel extends JPanel {
             JPanel bottom = new JPanel(new FlowLayout(FlowLayout.RIGHT));
             bottom.add(add);
             add(bottom, BorderLayout.SOUTH);
+        }
+
+        protected Supplier<List<Wish>> request() {
+            return ChildDashboardPanel.this::myWishes;
+        }
 
-            reload();
+        protected void present(List<Wish> wishes) {
+            hovered = -1;
+            listModel.clear();
+            listModel.addAll(wishes);
         }
 
-        void reload() {
-            listPanel.removeAll();
+        private void setHovered(int index) {
+            if (index == hovered) return;
+            repaintCell(hovered);
+            hovered = index;
+            repaintCell(hovered);
+        }
 
-            for (Wish w : dataManager.loadWishes()) {
-                if (!w.getRequestedById().equals(loggedChild.getUserId())) continue;
+        private void repaintCell(int index) {
+            if (index < 0 || index >= listModel.size()) return;
+            Rectangle r = list.getCellBounds(index, index);
+            if (r != null) list.repaint(r);
+        }
 
-                JPanel card = new JPanel(new BorderLayout(5,5));
-                card.setBorder(BorderFactory.createLineBorder(Color.GRAY, 2));
-                card.setMaximumSize(new Dimension(Integer.MAX_VALUE, 70));
-                card.setBackground(getColorForStatus(w.getStatus()));
+        /** One card component, re-filled for every visible wish. */
+        private class WishCardRenderer extends JPanel implements ListCellRenderer<Wish> {
 
-                JLabel titleLabel = new JLabel("🎁 " + w.getName() + " | Cost: " + w.getCost() + " pts");
+            private final JPanel card = new JPanel(new BorderLayout(5,5));
+            private final JLabel titleLabel = new JLabel();
+            private final JLabel statusLabel = new JLabel();
+
+            WishCardRenderer() {
+                super(new BorderLayout());
+                setBorder(BorderFactory.createEmptyBorder(5,0,0,0));
+
+                card.setBorder(BorderFactory.createLineBorder(Color.GRAY, 2));
                 titleLabel.setFont(new Font("Arial", Font.BOLD, 14));
 
-                JLabel statusLabel = new JLabel(getStatusText(w.getStatus()));
                 statusLabel.setOpaque(true);
                 statusLabel.setFont(new Font("Arial", Font.BOLD, 12));
                 statusLabel.setHorizontalAlignment(SwingConstants.CENTER);
                 statusLabel.setBorder(BorderFactory.createEmptyBorder(2,6,2,6));
-                statusLabel.setBackground(getColorForStatus(w.getStatus()).darker());
 
                 card.add(titleLabel, BorderLayout.WEST);
                 card.add(statusLabel, BorderLayout.EAST);
-
-                card.addMouseListener(new java.awt.event.MouseAdapter() {
-                    public void mouseEntered(java.awt.event.MouseEvent evt) {
-                        card.setBackground(getColorForStatus(w.getStatus()).brighter());
-                    }
-                    public void mouseExited(java.awt.event.MouseEvent evt) {
-                        card.setBackground(getColorForStatus(w.getStatus()));
-                    }
-                });
-
-                listPanel.add(Box.createVerticalStrut(5));
-                listPanel.add(card);
+                add(card, BorderLayout.CENTER);
             }
 
-            listPanel.revalidate();
-            listPanel.repaint();
+            public Component getListCellRendererComponent(JList<? extends Wish> l, Wish w, int index,
+                                                          boolean selected, boolean focused) {
+                setBackground(l.getBackground());
+                Color color = getColorForStatus(w.getStatus());
+                card.setBackground(index == hovered ? color.brighter() : color);
+                titleLabel.setText("🎁 " + w.getName() + " | Cost: " + w.getCost() + " pts");
+                statusLabel.setText(getStatusText(w.getStatus()));
+                statusLabel.setBackground(color.darker());
+                return this;
+            }
         }
 
         private Color getColorForStatus(Wish.Status status) {
@@ -389,7 +436,7 @@ public class ChildDashboardPanel extends JPanel {
                     );
 
 
-                    dataManager.addWish(wish);
+                    repository.addWish(wish, Durability.GROUP_COMMIT);
                     reload();
 
                 } catch (Exception ex) {
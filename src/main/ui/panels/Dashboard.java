@@ -0,0 +1,8 @@
+package ui.panels;
+
+/** A role dashboard that {@code MainApp} keeps per user and shows again on later role selections. */
+public interface Dashboard {
+
+    /** Brings the visible card up to date after the dashboard was shown again. */
+    void refresh();
+}
@@ -0,0 +1,41 @@
+package ui.panels;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+/**
+ * Text field that filters a table as the user types. The change action runs
+ * once typing pauses for {@link #DELAY_MS}; pair it with an
+ * {@link AsyncPanel} so the query runs in the background and a newer query
+ * replaces the one still running. Queries ask for at most {@link #MAX_ROWS}
+ * rows; {@link #showCount} says so next to the field when that many came back.
+ */
+public class FilterField extends JTextField {
+
+    /** Rows a filtered table lists; more than this is not worth scrolling. */
+    public static final int MAX_ROWS = 500;
+
+    private static final int DELAY_MS = 200;
+
+    private final JLabel countLabel = new JLabel(" ");
+
+    public FilterField(Runnable onChange) {
+        super(20);
+        Timer debounce = new Timer(DELAY_MS, e -> onChange.run());
+        debounce.setRepeats(false);
+        getDocument().addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) { debounce.restart(); }
+            public void removeUpdate(DocumentEvent e) { debounce.restart(); }
+            public void changedUpdate(DocumentEvent e) { debounce.restart(); }
+        });
+    }
+
+    /** Label to place after the field. */
+    public JLabel getCountLabel() { return countLabel; }
+
+    /** Call with the number of rows a query returned. */
+    public void showCount(int rows) {
+        countLabel.setText(rows >= MAX_ROWS ? "First " + MAX_ROWS + " shown, narrow the filter" : " ");
+    }
+}
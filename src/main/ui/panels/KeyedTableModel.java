@@ -0,0 +1,108 @@
+package ui.panels;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Table model that diffs each new row list against the rows on screen by key
+ * and fires only the row events for what changed: removed rows, inserted rows
+ * and rows whose displayed values differ. The JTable therefore keeps its
+ * selection and repaints just those rows. The displayed values are copied as
+ * text on {@link #update}, so rows changed in place show up as updates and
+ * painting a cell builds no new strings. If the surviving rows came back in a
+ * different order the whole table is reloaded. Keys are compared with equals;
+ * use one the row already holds, such as {@link model.Task#getKey()}.
+ */
+public abstract class KeyedTableModel<T> extends AbstractTableModel {
+
+    private final String[] cols;
+    private final Function<T, ?> key;
+    private List<T> rows = new ArrayList<>();
+    private List<Object[]> cells = new ArrayList<>();
+
+    protected KeyedTableModel(Function<T, ?> key, String... cols) {
+        this.key = key;
+        this.cols = cols;
+    }
+
+    /** The value shown for {@code row} in column {@code c}. */
+    protected abstract Object value(T row, int c);
+
+    public void update(List<T> next) {
+        Map<Object, Integer> nextIndex = new HashMap<>(next.size() * 2);
+        for (int i = 0; i < next.size(); i++) nextIndex.put(key.apply(next.get(i)), i);
+
+        // removals, bottom up in contiguous runs so indexes stay valid
+        int end = -1;
+        for (int i = rows.size() - 1; i >= -1; i--) {
+            boolean gone = i >= 0 && !nextIndex.containsKey(key.apply(rows.get(i)));
+            if (gone && end < 0) end = i;
+            if (!gone && end >= 0) {
+                rows.subList(i + 1, end + 1).clear();
+                cells.subList(i + 1, end + 1).clear();
+                fireTableRowsDeleted(i + 1, end);
+                end = -1;
+            }
+        }
+
+        // the survivors must keep their order for an in-place merge
+        int last = -1;
+        for (T row : rows) {
+            int at = nextIndex.get(key.apply(row));
+            if (at < last) {
+                replaceAll(next);
+                return;
+            }
+            last = at;
+        }
+
+        // walk the new list: survivors are updated if their values changed, others inserted
+        int insertFrom = -1, updateFrom = -1;
+        for (int i = 0; i <= next.size(); i++) {
+            boolean survivor = i < next.size() && i < rows.size()
+                    && Objects.equals(key.apply(rows.get(i)), key.apply(next.get(i)));
+            boolean changed = false;
+            if (survivor) {
+                Object[] now = snapshot(next.get(i));
+                changed = !Arrays.equals(now, cells.get(i));
+                rows.set(i, next.get(i));
+                cells.set(i, now);
+            } else if (i < next.size()) {
+                rows.add(i, next.get(i));
+                cells.add(i, snapshot(next.get(i)));
+            }
+            boolean inserting = i < next.size() && !survivor;
+
+            if (!inserting && insertFrom >= 0) {
+                fireTableRowsInserted(insertFrom, i - 1);
+                insertFrom = -1;
+            }
+            if (!changed && updateFrom >= 0) {
+                fireTableRowsUpdated(updateFrom, i - 1);
+                updateFrom = -1;
+            }
+            if (inserting && insertFrom < 0) insertFrom = i;
+            if (changed && updateFrom < 0) updateFrom = i;
+        }
+    }
+
+    private void replaceAll(List<T> next) {
+        rows = new ArrayList<>(next);
+        cells = new ArrayList<>(next.size());
+        for (T row : next) cells.add(snapshot(row));
+        fireTableDataChanged();
+    }
+
+    private Object[] snapshot(T row) {
+        Object[] values = new Object[cols.length];
+        for (int c = 0; c < cols.length; c++) values[c] = Objects.toString(value(row, c), "");
+        return values;
+    }
+
+    public T getAt(int r) { return rows.get(r); }
+    public int getRowCount() { return rows.size(); }
+    public int getColumnCount() { return cols.length; }
+    public String getColumnName(int c) { return cols[c]; }
+    public Object getValueAt(int r, int c) { return cells.get(r)[c]; }
+}
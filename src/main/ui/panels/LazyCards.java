@@ -0,0 +1,53 @@
+package ui.panels;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Card area of a dashboard. A card is built the first time it is shown and
+ * reloaded every time it is shown; loads of the other cards are cancelled.
+ * Hidden cards are not reloaded when the data changes since showing them
+ * reloads them anyway.
+ */
+public class LazyCards extends JPanel {
+
+    private final CardLayout cardLayout = new CardLayout();
+    private final Map<String, Supplier<? extends AsyncPanel<?>>> factories = new HashMap<>();
+    private final Map<String, AsyncPanel<?>> built = new HashMap<>();
+    private String current;
+
+    public LazyCards() {
+        setLayout(cardLayout);
+    }
+
+    public void addCard(String name, Supplier<? extends AsyncPanel<?>> factory) {
+        factories.put(name, factory);
+    }
+
+    public void show(String name) {
+        AsyncPanel<?> card = built.get(name);
+        if (card == null) {
+            card = factories.get(name).get();
+            built.put(name, card);
+            add(card, name);
+        }
+        AsyncPanel.cancelOthers(this, card);
+        card.reload();
+        cardLayout.show(this, name);
+        current = name;
+    }
+
+    /** Reloads the visible card if it is one of {@code names}. */
+    public void reloadIfShowing(String... names) {
+        for (String name : names)
+            if (name.equals(current)) built.get(name).reload();
+    }
+
+    /** Reloads the visible card. */
+    public void refresh() {
+        if (current != null) built.get(current).reload();
+    }
+}
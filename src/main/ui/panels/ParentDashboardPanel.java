@@ -4,31 +4,34 @@ import model.Task;
 import model.User;
 import model.Wish;
 import model.Child;
-import persistence.DataManager;
+import persistence.DataListener;
+import persistence.DataRepository;
+import persistence.Durability;
+import persistence.Mutation;
+import persistence.TaskColumns;
+import persistence.TaskQuery;
+import persistence.TaskStats;
 import ui.MainApp;
 
 import javax.swing.*;
-import javax.swing.table.AbstractTableModel;
 import java.awt.*;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 
-public class ParentDashboardPanel extends JPanel {
+public class ParentDashboardPanel extends JPanel implements Dashboard {
 
-    private DataManager dataManager;
+    private DataRepository repository;
     private MainApp mainApp;
 
-    private CardLayout cardLayout = new CardLayout();
-    private JPanel centerCards = new JPanel(cardLayout);
+    private LazyCards centerCards = new LazyCards();
 
-    private PendingTasksPanel pendingPanel;
-    private ChildProgressPanel progressPanel;
-    private WishApprovalPanel wishPanel;
-
-    public ParentDashboardPanel(DataManager dm, MainApp app) {
-        this.dataManager = dm;
+    public ParentDashboardPanel(DataRepository repo, MainApp app) {
+        this.repository = repo;
         this.mainApp = app;
 
         setLayout(new BorderLayout(10, 10));
@@ -47,16 +50,40 @@ public class ParentDashboardPanel extends JPanel {
 
         add(createLeftMenu(), BorderLayout.WEST);
 
-        pendingPanel = new PendingTasksPanel();
-        progressPanel = new ChildProgressPanel();
-        wishPanel = new WishApprovalPanel();
-
-        centerCards.add(pendingPanel, "PENDING");
-        centerCards.add(progressPanel, "PROGRESS");
-        centerCards.add(wishPanel, "WISHES");
+        centerCards.addCard("PENDING", PendingTasksPanel::new);
+        centerCards.addCard("PROGRESS", ChildProgressPanel::new);
+        centerCards.addCard("WISHES", WishApprovalPanel::new);
+        centerCards.addCard("SEARCH", () -> new SearchPanel(repository));
 
         add(centerCards, BorderLayout.CENTER);
-        cardLayout.show(centerCards, "PENDING");
+        centerCards.show("PENDING");
+    }
+
+    public void refresh() {
+        centerCards.refresh();
+    }
+
+
+    private final DataListener dataListener =
+            changed -> SwingUtilities.invokeLater(() -> onDataChanged(changed));
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        repository.addListener(dataListener);
+    }
+
+    @Override
+    public void removeNotify() {
+        repository.removeListener(dataListener);
+        super.removeNotify();
+    }
+
+    /** Refreshes the visible card if it shows what another instance changed. */
+    private void onDataChanged(Set<Mutation.Type> changed) {
+        if (changed.contains(Mutation.Type.TASK)) centerCards.reloadIfShowing("PENDING", "PROGRESS", "SEARCH");
+        if (changed.contains(Mutation.Type.USER)) centerCards.reloadIfShowing("PROGRESS");
+        if (changed.contains(Mutation.Type.WISH)) centerCards.reloadIfShowing("WISHES", "SEARCH");
     }
 
 
@@ -69,25 +96,15 @@ public class ParentDashboardPanel extends JPanel {
         JButton b2 = new JButton("Children Progress");
         JButton b3 = new JButton("Wish Approvals");
         JButton b4 = new JButton("Assign Task");
+        JButton b5 = new JButton("Search");
 
-        b1.addActionListener(e -> {
-            pendingPanel.reload();
-            cardLayout.show(centerCards, "PENDING");
-        });
-
-        b2.addActionListener(e -> {
-            progressPanel.reload();
-            cardLayout.show(centerCards, "PROGRESS");
-        });
-
-        b3.addActionListener(e -> {
-            wishPanel.reload();
-            cardLayout.show(centerCards, "WISHES");
-        });
-
+        b1.addActionListener(e -> centerCards.show("PENDING"));
+        b2.addActionListener(e -> centerCards.show("PROGRESS"));
+        b3.addActionListener(e -> centerCards.show("WISHES"));
         b4.addActionListener(e -> openAssignTaskDialog());
+        b5.addActionListener(e -> centerCards.show("SEARCH"));
 
-        for (JButton b : new JButton[]{b1, b2, b3, b4}) {
+        for (JButton b : new JButton[]{b1, b2, b3, b4, b5}) {
             b.setAlignmentX(Component.CENTER_ALIGNMENT);
             p.add(Box.createVerticalStrut(10));
             p.add(b);
@@ -105,7 +122,7 @@ public class ParentDashboardPanel extends JPanel {
         JTextField due = new JTextField();
 
         JComboBox<String> childBox = new JComboBox<>();
-        for (User u : dataManager.loadUsers())
+        for (User u : repository.getUsers())
             if (u.getRole() == User.Role.CHILD)
                 childBox.addItem(u.getUserId());
 
@@ -130,22 +147,26 @@ public class ParentDashboardPanel extends JPanel {
 
         t.setStatus(Task.Status.PENDING);
 
-        List<Task> list = dataManager.loadTasks();
-        list.add(t);
-        dataManager.saveTasks(list);
+        repository.addTask(t, Durability.GROUP_COMMIT);
 
-        pendingPanel.reload();
-        cardLayout.show(centerCards, "PENDING");
+        centerCards.show("PENDING");
     }
 
 
-    private class PendingTasksPanel extends JPanel {
+    private class PendingTasksPanel extends AsyncPanel<List<Task>> {
         private JTable table;
         private TaskTableModel model = new TaskTableModel();
+        private FilterField filter = new FilterField(this::reload);
 
         public PendingTasksPanel() {
             setLayout(new BorderLayout());
 
+            JPanel top = new JPanel(new FlowLayout(FlowLayout.LEFT));
+            top.add(new JLabel("Filter (child, title, due date):"));
+            top.add(filter);
+            top.add(filter.getCountLabel());
+            add(top, BorderLayout.NORTH);
+
             table = new JTable(model);
             add(new JScrollPane(table), BorderLayout.CENTER);
 
@@ -159,8 +180,6 @@ public class ParentDashboardPanel extends JPanel {
             buttons.add(approve);
             buttons.add(reject);
             add(buttons, BorderLayout.SOUTH);
-
-            reload();
         }
 
         private void approveTask() {
@@ -168,30 +187,11 @@ public class ParentDashboardPanel extends JPanel {
             if (row < 0) return;
 
             Task task = model.getAt(row);
-            task.setStatus(Task.Status.APPROVED);
-
-            List<Task> tasks = dataManager.loadTasks();
-            List<User> users = dataManager.loadUsers();
-
-            for (Task t : tasks) {
-                if (t.getTaskId().equals(task.getTaskId())) {
-                    t.setStatus(Task.Status.APPROVED);
-                }
-            }
-
-            for (User u : users) {
-                if (u.getUserId().equals(task.getAssignedToId())
-                        && u instanceof Child) {
-
-                    Child ch = (Child) u;
-                    ch.addPoints(task.getPoints());
-                }
-            }
-
-            dataManager.saveTasks(tasks);
-            dataManager.saveUsers(users);
-
-            reload();
+            submit(() -> repository.approveTask(task, Task.Status.PENDING, 0, Durability.SYNC),
+                    approved -> {
+                        if (!approved) JOptionPane.showMessageDialog(this, "This task was already handled elsewhere.");
+                        reload();
+                    });
         }
 
 
@@ -200,57 +200,33 @@ public class ParentDashboardPanel extends JPanel {
             if (row < 0) return;
 
             Task t = model.getAt(row);
-            t.setStatus(Task.Status.REJECTED);
-
-            List<Task> tasks = dataManager.loadTasks();
-            for (Task x : tasks)
-                if (x.getTaskId().equals(t.getTaskId()))
-                    x.setStatus(Task.Status.REJECTED);
-
-            dataManager.saveTasks(tasks);
-            reload();
+            submit(() -> repository.compareAndSetTaskStatus(t, Task.Status.PENDING, Task.Status.REJECTED, Durability.SYNC),
+                    rejected -> {
+                        if (!rejected) JOptionPane.showMessageDialog(this, "This task was already handled elsewhere.");
+                        reload();
+                    });
         }
 
-        public void reload() {
-            model.reload(dataManager.loadTasks());
+        protected Supplier<List<Task>> request() {
+            String text = filter.getText();
+            return () -> repository.searchTasks(text, TaskQuery.all().withStatus(Task.Status.PENDING), FilterField.MAX_ROWS);
         }
 
-        private void rewardChild(Task task) {
-            List<User> users = dataManager.loadUsers();
-            for (User u : users) {
-                if (u instanceof Child ch &&
-                        ch.getUserId().equals(task.getAssignedToId())) {
-
-                    ch.addPoints(task.getPoints());
-                }
-            }
-            dataManager.saveUsers(users);
+        protected void present(List<Task> tasks) {
+            model.update(tasks);
+            filter.showCount(tasks.size());
         }
     }
 
-    private static class TaskTableModel extends AbstractTableModel {
-        private List<Task> list = new ArrayList<>();
-        private final String[] cols = {"Child", "Title", "Due", "Points"};
-
-        public void reload(List<Task> tasks) {
-            list.clear();
-            for (Task t : tasks)
-                if (t.getStatus() == Task.Status.PENDING)
-                    list.add(t);
-            fireTableDataChanged();
-        }
+    private static class TaskTableModel extends KeyedTableModel<Task> {
 
-        public Task getAt(int r) { return list.get(r); }
-        public int getRowCount() { return list.size(); }
-        public int getColumnCount() { return cols.length; }
-        public String getColumnName(int c) { return cols[c]; }
+        TaskTableModel() { super(Task::getKey, "Child", "Title", "Due", "Points"); }
 
-        public Object getValueAt(int r, int c) {
-            Task t = list.get(r);
+        protected Object value(Task t, int c) {
             return switch (c) {
                 case 0 -> t.getAssignedToId();
                 case 1 -> t.getTitle();
-                case 2 -> t.getDueDate().format(DateTimeFormatter.ISO_LOCAL_DATE);
+                case 2 -> t.getDueDate();
                 case 3 -> t.getPoints();
                 default -> "";
             };
@@ -258,7 +234,12 @@ public class ParentDashboardPanel extends JPanel {
     }
 
 
-    private class ChildProgressPanel extends JPanel {
+    private static final int DUE_SOON_DAYS = 7;
+
+    private record Progress(List<User> users, Map<String, TaskStats> stats,
+                            Map<String, TaskColumns.DueCounts> due) { }
+
+    private class ChildProgressPanel extends AsyncPanel<Progress> {
 
         private JTable table;
         private ProgressModel model = new ProgressModel();
@@ -267,41 +248,55 @@ public class ParentDashboardPanel extends JPanel {
             setLayout(new BorderLayout());
             table = new JTable(model);
             add(new JScrollPane(table), BorderLayout.CENTER);
-            reload();
         }
 
-        public void reload() {
-            model.reload(dataManager.loadUsers());
+        protected Supplier<Progress> request() {
+            return () -> new Progress(repository.getUsers(), repository.taskStatsByChild(),
+                    repository.pendingByDueDate(DUE_SOON_DAYS));
+        }
+
+        protected void present(Progress progress) {
+            model.reload(progress);
         }
     }
 
-    private static class ProgressModel extends AbstractTableModel {
+    private static class ProgressModel extends KeyedTableModel<Child> {
 
-        private List<Child> list = new ArrayList<>();
-        private final String[] cols = {"Child ID", "Level", "Points"};
+        private static final TaskColumns.DueCounts NONE_DUE = new TaskColumns.DueCounts(0, 0, 0);
 
-        public void reload(List<User> users) {
-            list.clear();
-            for (User u : users)
-                if (u instanceof Child)
-                    list.add((Child) u);
-            fireTableDataChanged();
+        private Map<String, TaskStats> stats = new HashMap<>();
+        private Map<String, TaskColumns.DueCounts> due = new HashMap<>();
+
+        ProgressModel() {
+            super(Child::getUserId, "Child ID", "Level", "Points", "Awaiting Approval",
+                    "Overdue", "Due in " + DUE_SOON_DAYS + " Days");
         }
 
-        public int getRowCount() { return list.size(); }
-        public int getColumnCount() { return cols.length; }
-        public String getColumnName(int c) { return cols[c]; }
+        public void reload(Progress progress) {
+            this.stats = progress.stats();
+            this.due = progress.due();
+            List<Child> children = new ArrayList<>();
+            for (User u : progress.users())
+                if (u instanceof Child)
+                    children.add((Child) u);
+            update(children);
+        }
 
-        public Object getValueAt(int r, int c) {
-            Child ch = list.get(r);
-            if (c == 0) return ch.getUserId();
-            if (c == 1) return ch.getLevel();
-            return ch.getTotalPoints();
+        protected Object value(Child ch, int c) {
+            TaskColumns.DueCounts d = due.getOrDefault(ch.getUserId(), NONE_DUE);
+            return switch (c) {
+                case 0 -> ch.getUserId();
+                case 1 -> ch.getLevel();
+                case 2 -> ch.getTotalPoints();
+                case 3 -> stats.getOrDefault(ch.getUserId(), new TaskStats()).getPoints(Task.Status.COMPLETED);
+                case 4 -> d.overdue();
+                default -> d.dueSoon();
+            };
         }
     }
 
 
-    private class WishApprovalPanel extends JPanel {
+    private class WishApprovalPanel extends AsyncPanel<List<Wish>> {
 
         private JTable table;
         private WishModel model = new WishModel();
@@ -321,8 +316,6 @@ public class ParentDashboardPanel extends JPanel {
             buttons.add(approve);
             buttons.add(reject);
             add(buttons, BorderLayout.SOUTH);
-
-            reload();
         }
 
         private void updateWish(Wish.Status status) {
@@ -330,40 +323,27 @@ public class ParentDashboardPanel extends JPanel {
             if (r < 0) return;
 
             Wish w = model.getAt(r);
-            w.setStatus(status);
-
-            List<Wish> wishes = dataManager.loadWishes();
-            for (Wish x : wishes)
-                if (x.getWishId().equals(w.getWishId()))
-                    x.setStatus(status);
+            submit(() -> repository.compareAndSetWishStatus(w, Wish.Status.PENDING, status, Durability.SYNC),
+                    updated -> {
+                        if (!updated) JOptionPane.showMessageDialog(this, "This wish was already handled elsewhere.");
+                        reload();
+                    });
+        }
 
-            dataManager.saveWishes(wishes);
-            reload();
+        protected Supplier<List<Wish>> request() {
+            return repository::getWishes;
         }
 
-        public void reload() {
-            model.reload(dataManager.loadWishes());
+        protected void present(List<Wish> wishes) {
+            model.update(wishes);
         }
     }
 
-    private static class WishModel extends AbstractTableModel {
-
-        private List<Wish> list = new ArrayList<>();
-        private final String[] cols = {"Child", "Name", "Cost", "Status"};
-
-        public void reload(List<Wish> wishes) {
-            list.clear();
-            list.addAll(wishes);
-            fireTableDataChanged();
-        }
+    private static class WishModel extends KeyedTableModel<Wish> {
 
-        public Wish getAt(int r) { return list.get(r); }
-        public int getRowCount() { return list.size(); }
-        public int getColumnCount() { return cols.length; }
-        public String getColumnName(int c) { return cols[c]; }
+        WishModel() { super(Wish::getKey, "Child", "Name", "Cost", "Status"); }
 
-        public Object getValueAt(int r, int c) {
-            Wish w = list.get(r);
+        protected Object value(Wish w, int c) {
             return switch (c) {
                 case 0 -> w.getRequestedById();
                 case 1 -> w.getName();
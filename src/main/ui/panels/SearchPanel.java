@@ -0,0 +1,85 @@
+package ui.panels;
+
+import model.Task;
+import model.Wish;
+import persistence.DataRepository;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/** Word and prefix search over task titles and descriptions and wish names. */
+public class SearchPanel extends AsyncPanel<SearchPanel.Results> {
+
+    private static final int LIMIT = 500;
+
+    private final DataRepository repository;
+    private final JTextField queryField = new JTextField(30);
+    private final JLabel resultLbl = new JLabel(" ");
+    private final ResultModel model = new ResultModel();
+
+    public SearchPanel(DataRepository repository) {
+        this.repository = repository;
+        setLayout(new BorderLayout(10, 10));
+
+        JPanel top = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        JButton search = new JButton("Search");
+        top.add(new JLabel("Find:"));
+        top.add(queryField);
+        top.add(search);
+        top.add(resultLbl);
+        add(top, BorderLayout.NORTH);
+
+        add(new JScrollPane(new JTable(model)), BorderLayout.CENTER);
+
+        queryField.addActionListener(e -> reload());
+        search.addActionListener(e -> reload());
+    }
+
+    record Results(String query, List<Task> tasks, List<Wish> wishes) { }
+
+    protected Supplier<Results> request() {
+        String q = queryField.getText();
+        return () -> new Results(q, repository.searchTasks(q, LIMIT), repository.searchWishes(q, LIMIT));
+    }
+
+    protected void present(Results r) {
+        model.reload(r.tasks(), r.wishes());
+        resultLbl.setText(r.query().isBlank() ? " " : r.tasks().size() + " tasks, " + r.wishes().size() + " wishes");
+    }
+
+    private static class ResultModel extends KeyedTableModel<Object> {
+
+        ResultModel() {
+            super(o -> o instanceof Task t ? Map.entry("task", t.getKey()) : Map.entry("wish", ((Wish) o).getKey()),
+                    "Type", "Child", "Title", "Status");
+        }
+
+        public void reload(List<Task> tasks, List<Wish> wishes) {
+            List<Object> rows = new ArrayList<>(tasks);
+            rows.addAll(wishes);
+            update(rows);
+        }
+
+        protected Object value(Object row, int c) {
+            if (row instanceof Task t) {
+                return switch (c) {
+                    case 0 -> "Task";
+                    case 1 -> t.getAssignedToId();
+                    case 2 -> t.getTitle();
+                    default -> t.getStatus();
+                };
+            }
+            Wish w = (Wish) row;
+            return switch (c) {
+                case 0 -> "Wish";
+                case 1 -> w.getRequestedById();
+                case 2 -> w.getName();
+                default -> w.getStatus();
+            };
+        }
+    }
+}
@@ -3,28 +3,32 @@ package ui.panels;
 import model.Task;
 import model.User;
 import model.Child;
-import persistence.DataManager;
+import persistence.DataListener;
+import persistence.DataRepository;
+import persistence.Durability;
+import persistence.Mutation;
+import persistence.TaskQuery;
+import persistence.TaskStats;
 import ui.MainApp;
 
 import javax.swing.*;
-import javax.swing.table.AbstractTableModel;
 import java.awt.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 
-public class TeacherDashboardPanel extends JPanel {
+public class TeacherDashboardPanel extends JPanel implements Dashboard {
 
-    private DataManager dataManager;
+    private DataRepository repository;
     private MainApp mainApp;
 
-    private CardLayout cardLayout = new CardLayout();
-    private JPanel centerCards = new JPanel(cardLayout);
+    private LazyCards centerCards = new LazyCards();
 
-    private TaskApprovalPanel approvalPanel;
-    private SummaryPanel summaryPanel;
-
-    public TeacherDashboardPanel(DataManager dm, MainApp app) {
-        this.dataManager = dm;
+    public TeacherDashboardPanel(DataRepository repo, MainApp app) {
+        this.repository = repo;
         this.mainApp = app;
 
         if (app.getLoggedUser() == null ||
@@ -49,16 +53,41 @@ public class TeacherDashboardPanel extends JPanel {
         top.add(switchRole, BorderLayout.EAST);
         add(top, BorderLayout.NORTH);
 
-        approvalPanel = new TaskApprovalPanel();
-        summaryPanel = new SummaryPanel();
-
-        centerCards.add(approvalPanel, "APPROVAL");
-        centerCards.add(summaryPanel, "SUMMARY");
+        centerCards.addCard("APPROVAL", TaskApprovalPanel::new);
+        centerCards.addCard("SUMMARY", SummaryPanel::new);
+        centerCards.addCard("SEARCH", () -> new SearchPanel(repository));
 
         add(createLeftMenu(), BorderLayout.WEST);
         add(centerCards, BorderLayout.CENTER);
 
-        cardLayout.show(centerCards, "APPROVAL");
+        centerCards.show("APPROVAL");
+    }
+
+    public void refresh() {
+        centerCards.refresh();
+    }
+
+
+    private final DataListener dataListener =
+            changed -> SwingUtilities.invokeLater(() -> onDataChanged(changed));
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        repository.addListener(dataListener);
+    }
+
+    @Override
+    public void removeNotify() {
+        repository.removeListener(dataListener);
+        super.removeNotify();
+    }
+
+    /** Refreshes the visible card if it shows what another instance changed. */
+    private void onDataChanged(Set<Mutation.Type> changed) {
+        if (changed.contains(Mutation.Type.TASK)) centerCards.reloadIfShowing("APPROVAL", "SUMMARY", "SEARCH");
+        if (changed.contains(Mutation.Type.USER)) centerCards.reloadIfShowing("SUMMARY");
+        if (changed.contains(Mutation.Type.WISH)) centerCards.reloadIfShowing("SEARCH");
     }
 
 
@@ -69,18 +98,13 @@ public class TeacherDashboardPanel extends JPanel {
 
         JButton approveBtn = new JButton("Approve Tasks");
         JButton summaryBtn = new JButton("Summary");
+        JButton searchBtn = new JButton("Search");
 
-        approveBtn.addActionListener(e -> {
-            approvalPanel.reload();
-            cardLayout.show(centerCards, "APPROVAL");
-        });
+        approveBtn.addActionListener(e -> centerCards.show("APPROVAL"));
+        summaryBtn.addActionListener(e -> centerCards.show("SUMMARY"));
+        searchBtn.addActionListener(e -> centerCards.show("SEARCH"));
 
-        summaryBtn.addActionListener(e -> {
-            summaryPanel.reload();
-            cardLayout.show(centerCards, "SUMMARY");
-        });
-
-        for (JButton b : new JButton[]{approveBtn, summaryBtn}) {
+        for (JButton b : new JButton[]{approveBtn, summaryBtn, searchBtn}) {
             b.setAlignmentX(Component.CENTER_ALIGNMENT);
             p.add(Box.createVerticalStrut(10));
             p.add(b);
@@ -91,14 +115,21 @@ public class TeacherDashboardPanel extends JPanel {
     }
 
 
-    private class TaskApprovalPanel extends JPanel {
+    private class TaskApprovalPanel extends AsyncPanel<List<Task>> {
 
         private JTable table;
         private TaskModel model = new TaskModel();
+        private FilterField filter = new FilterField(this::reload);
 
         public TaskApprovalPanel() {
             setLayout(new BorderLayout(10, 10));
 
+            JPanel top = new JPanel(new FlowLayout(FlowLayout.LEFT));
+            top.add(new JLabel("Filter (child, title, due date):"));
+            top.add(filter);
+            top.add(filter.getCountLabel());
+            add(top, BorderLayout.NORTH);
+
             table = new JTable(model);
             add(new JScrollPane(table), BorderLayout.CENTER);
 
@@ -120,38 +151,18 @@ public class TeacherDashboardPanel extends JPanel {
             bottom.add(reject);
 
             add(bottom, BorderLayout.SOUTH);
-
-            reload();
         }
 
         private void approveTask(int rating) {
             int row = table.getSelectedRow();
             if (row < 0) return;
 
-            Task selected = model.getAt(row);
-
-            List<Task> tasks = dataManager.loadTasks();
-            List<User> users = dataManager.loadUsers();
-
-            for (Task t : tasks) {
-                if (t.getTaskId().equals(selected.getTaskId())) {
-                    t.setStatus(Task.Status.APPROVED);
-                    t.setRating(rating);
-
-                    for (User u : users) {
-                        if (u instanceof Child ch &&
-                                ch.getUserId().equals(t.getAssignedToId())) {
-                            ch.addPoints(t.getPoints());
-                        }
-                    }
-                }
-            }
-
-            dataManager.saveTasks(tasks);
-            dataManager.saveUsers(users);
-
-            reload();
-            summaryPanel.reload(); 
+            Task t = model.getAt(row);
+            submit(() -> repository.approveTask(t, Task.Status.COMPLETED, rating, Durability.SYNC),
+                    approved -> {
+                        if (!approved) JOptionPane.showMessageDialog(this, "This task was already handled elsewhere.");
+                        reload();
+                    });
         }
 
         private void rejectTask() {
@@ -159,45 +170,53 @@ public class TeacherDashboardPanel extends JPanel {
             if (row < 0) return;
 
             Task selected = model.getAt(row);
-            List<Task> tasks = dataManager.loadTasks();
-
-            for (Task t : tasks)
-                if (t.getTaskId().equals(selected.getTaskId()))
-                    t.setStatus(Task.Status.REJECTED);
-
-            dataManager.saveTasks(tasks);
+            submit(() -> repository.compareAndSetTaskStatus(selected, Task.Status.COMPLETED, Task.Status.REJECTED, Durability.SYNC),
+                    rejected -> {
+                        if (!rejected) JOptionPane.showMessageDialog(this, "This task was already handled elsewhere.");
+                        reload();
+                    });
+        }
 
-            reload();
-            summaryPanel.reload(); 
+        protected Supplier<List<Task>> request() {
+            String text = filter.getText();
+            return () -> repository.searchTasks(text, TaskQuery.all().withStatus(Task.Status.COMPLETED), FilterField.MAX_ROWS);
         }
 
-        private void reload() {
-            model.reload(dataManager.loadTasks());
+        protected void present(List<Task> tasks) {
+            model.update(tasks);
+            filter.showCount(tasks.size());
         }
     }
 
 
-    private class SummaryPanel extends JPanel {
+    private static final Color APPROVED_COLOR = new Color(76, 175, 80);
+    private static final Color REJECTED_COLOR = new Color(244, 67, 54);
+
+    private record Summary(TaskStats stats, List<User> users, Map<String, TaskStats> byChild) { }
+
+    private class SummaryPanel extends AsyncPanel<Summary> {
 
         private JLabel totalLbl = new JLabel();
         private JLabel approvedLbl = new JLabel();
         private JLabel rejectedLbl = new JLabel();
         private JLabel avgRatingLbl = new JLabel();
+        private JLabel pointsLbl = new JLabel();
 
-        private TaskChartPanel chartPanel = new TaskChartPanel();
+        private ChartPanel chartPanel = new ChartPanel();
         private JTable childTable;
         private ChildSummaryModel model = new ChildSummaryModel();
 
         public SummaryPanel() {
             setLayout(new BorderLayout(10, 10));
 
-            JPanel stats = new JPanel(new GridLayout(1, 4, 10, 10));
+            JPanel stats = new JPanel(new GridLayout(1, 5, 10, 10));
             stats.setBorder(BorderFactory.createTitledBorder("Task Summary"));
 
             stats.add(totalLbl);
             stats.add(approvedLbl);
             stats.add(rejectedLbl);
             stats.add(avgRatingLbl);
+            stats.add(pointsLbl);
 
             add(stats, BorderLayout.NORTH);
 
@@ -208,111 +227,58 @@ public class TeacherDashboardPanel extends JPanel {
 
             childTable = new JTable(model);
             add(new JScrollPane(childTable), BorderLayout.SOUTH);
+        }
 
-            reload();
+        protected Supplier<Summary> request() {
+            // includes archived tasks via their precomputed totals
+            return () -> new Summary(repository.taskStats(), repository.getUsers(), repository.taskStatsByChild());
         }
 
-        public void reload() {
-            List<Task> tasks = dataManager.loadTasks();
-            List<User> users = dataManager.loadUsers();
-
-            int total = tasks.size();
-            int approved = 0;
-            int rejected = 0;
-            int ratingSum = 0;
-            int ratedCount = 0;
-
-            for (Task t : tasks) {
-                if (t.getStatus() == Task.Status.APPROVED) approved++;
-                if (t.getStatus() == Task.Status.REJECTED) rejected++;
-                if (t.getRating() > 0) {
-                    ratingSum += t.getRating();
-                    ratedCount++;
-                }
-            }
+        protected void present(Summary summary) {
+            TaskStats stats = summary.stats();
 
-            double avgRating = ratedCount == 0 ? 0 :
-                    (double) ratingSum / ratedCount;
+            int total = stats.getTotal();
+            int approved = stats.getCount(Task.Status.APPROVED);
+            int rejected = stats.getCount(Task.Status.REJECTED);
+            double avgRating = stats.getAverageRating();
 
             totalLbl.setText("📌 Total: " + total);
             approvedLbl.setText("✅ Approved: " + approved);
             rejectedLbl.setText("❌ Rejected: " + rejected);
             avgRatingLbl.setText("⭐ Avg Rating: " +
                     String.format("%.2f", avgRating));
+            pointsLbl.setText("🏆 Points Awarded: " + stats.getPoints(Task.Status.APPROVED));
 
-            chartPanel.updateData(approved, rejected);
-            model.reload(users);
-        }
-    }
-
-
-    private class TaskChartPanel extends JPanel {
-
-        private int approved;
-        private int rejected;
-
-        public void updateData(int approved, int rejected) {
-            this.approved = approved;
-            this.rejected = rejected;
-            repaint();
+            updateChart(summary, approved, rejected);
+            model.reload(summary.users(), summary.byChild());
         }
 
-        @Override
-        protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
-            Graphics2D g2 = (Graphics2D) g;
-
-            int w = getWidth();
-            int h = getHeight();
-
-            int barWidth = 80;
-            int gap = 60;
-
-            int max = Math.max(approved, rejected);
-            if (max == 0) {
-                g2.drawString("No data available", w / 2 - 40, h / 2);
-                return;
+        /** Approved and rejected bars for all tasks, then for each child. */
+        private void updateChart(Summary summary, int approved, int rejected) {
+            List<String> labels = new ArrayList<>(List.of("All"));
+            List<Integer> approvedCounts = new ArrayList<>(List.of(approved));
+            List<Integer> rejectedCounts = new ArrayList<>(List.of(rejected));
+            for (User u : summary.users()) {
+                if (!(u instanceof Child)) continue;
+                TaskStats s = summary.byChild().getOrDefault(u.getUserId(), new TaskStats());
+                labels.add(u.getUserId());
+                approvedCounts.add(s.getCount(Task.Status.APPROVED));
+                rejectedCounts.add(s.getCount(Task.Status.REJECTED));
             }
-
-            int approvedH = (int) ((approved / (double) max) * (h - 80));
-            int rejectedH = (int) ((rejected / (double) max) * (h - 80));
-
-            int x1 = w / 2 - barWidth - gap / 2;
-            int x2 = w / 2 + gap / 2;
-
-            g2.setColor(new Color(76, 175, 80));
-            g2.fillRect(x1, h - approvedH - 40, barWidth, approvedH);
-
-            g2.setColor(new Color(244, 67, 54));
-            g2.fillRect(x2, h - rejectedH - 40, barWidth, rejectedH);
-
-            g2.setColor(Color.BLACK);
-            g2.drawString("Approved", x1 + 10, h - 15);
-            g2.drawString("Rejected", x2 + 10, h - 15);
+            chartPanel.setData(labels.toArray(new String[0]), List.of(
+                    new ChartPanel.Series("Approved", APPROVED_COLOR,
+                            approvedCounts.stream().mapToDouble(Integer::doubleValue).toArray()),
+                    new ChartPanel.Series("Rejected", REJECTED_COLOR,
+                            rejectedCounts.stream().mapToDouble(Integer::doubleValue).toArray())));
         }
     }
 
 
-    private static class TaskModel extends AbstractTableModel {
+    private static class TaskModel extends KeyedTableModel<Task> {
 
-        private List<Task> list = new ArrayList<>();
-        private final String[] cols = {"Child", "Title", "Points"};
+        TaskModel() { super(Task::getKey, "Child", "Title", "Points"); }
 
-        public void reload(List<Task> tasks) {
-            list.clear();
-            for (Task t : tasks)
-                if (t.getStatus() == Task.Status.COMPLETED)
-                    list.add(t);
-            fireTableDataChanged();
-        }
-
-        public Task getAt(int r) { return list.get(r); }
-        public int getRowCount() { return list.size(); }
-        public int getColumnCount() { return cols.length; }
-        public String getColumnName(int c) { return cols[c]; }
-
-        public Object getValueAt(int r, int c) {
-            Task t = list.get(r);
+        protected Object value(Task t, int c) {
             return switch (c) {
                 case 0 -> t.getAssignedToId();
                 case 1 -> t.getTitle();
@@ -321,29 +287,32 @@ public class TeacherDashboardPanel extends JPanel {
         }
     }
 
-    private static class ChildSummaryModel extends AbstractTableModel {
+    private static class ChildSummaryModel extends KeyedTableModel<Child> {
 
-        private List<Child> list = new ArrayList<>();
-        private final String[] cols = {"Child ID", "Points", "Level"};
+        private Map<String, TaskStats> stats = new HashMap<>();
 
-        public void reload(List<User> users) {
-            list.clear();
+        ChildSummaryModel() {
+            super(Child::getUserId, "Child ID", "Points", "Level", "Approved", "Rejected", "Avg Rating");
+        }
+
+        public void reload(List<User> users, Map<String, TaskStats> stats) {
+            this.stats = stats;
+            List<Child> children = new ArrayList<>();
             for (User u : users)
                 if (u instanceof Child)
-                    list.add((Child) u);
-            fireTableDataChanged();
+                    children.add((Child) u);
+            update(children);
         }
 
-        public int getRowCount() { return list.size(); }
-        public int getColumnCount() { return cols.length; }
-        public String getColumnName(int c) { return cols[c]; }
-
-        public Object getValueAt(int r, int c) {
-            Child ch = list.get(r);
+        protected Object value(Child ch, int c) {
+            TaskStats s = stats.getOrDefault(ch.getUserId(), new TaskStats());
             return switch (c) {
                 case 0 -> ch.getUserId();
                 case 1 -> ch.getTotalPoints();
-                default -> ch.getLevel();
+                case 2 -> ch.getLevel();
+                case 3 -> s.getCount(Task.Status.APPROVED);
+                case 4 -> s.getCount(Task.Status.REJECTED);
+                default -> String.format("%.2f", s.getAverageRating());
             };
         }
     }
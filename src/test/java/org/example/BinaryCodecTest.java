@@ -0,0 +1,96 @@
+package org.example;
+
+import junit.framework.TestCase;
+import model.IdGenerator;
+import model.Task;
+import model.Wish;
+import persistence.BinaryCodec;
+import persistence.DataManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Tasks and wishes survive a binary round trip field for field, including nulls and versions. */
+public class BinaryCodecTest extends TestCase {
+
+    private static byte[] encodeTasks(List<Task> tasks) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryCodec.writeTasks(out, tasks);
+        return out.toByteArray();
+    }
+
+    public void testTaskRoundTrip() throws IOException {
+        Task uuidId = new Task(IdGenerator.nextId(), "Homework", "Math pages 4-5", LocalDate.of(2026, 5, 17),
+                10, Task.Status.APPROVED, "child1", 4);
+        uuidId.setVersion(7);
+        Task textId = new Task("legacy-1", "Çamaşır", null, null, 0, null, null, 0);
+
+        List<Task> read = BinaryCodec.readTasks(new ByteArrayInputStream(encodeTasks(List.of(uuidId, textId))));
+
+        assertEquals(2, read.size());
+        assertSameTask(uuidId, read.get(0));
+        assertSameTask(textId, read.get(1));
+    }
+
+    public void testWishRoundTrip() throws IOException {
+        Wish w = new Wish(IdGenerator.nextId(), "Bike", 200, Wish.Status.APPROVED, "child1", "parent1", 3);
+        w.setVersion(2);
+        Wish bare = new Wish("w-2", "Book", 15, null, "child1", null, 1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryCodec.writeWishes(out, List.of(w, bare));
+
+        List<Wish> read = BinaryCodec.readWishes(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(2, read.size());
+        for (int i = 0; i < 2; i++) {
+            Wish expected = i == 0 ? w : bare, actual = read.get(i);
+            assertEquals(expected.getWishId(), actual.getWishId());
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getCost(), actual.getCost());
+            assertEquals(expected.getStatus(), actual.getStatus());
+            assertEquals(expected.getRequestedById(), actual.getRequestedById());
+            assertEquals(expected.getApprovedById(), actual.getApprovedById());
+            assertEquals(expected.getRequiredLevel(), actual.getRequiredLevel());
+            assertEquals(expected.getVersion(), actual.getVersion());
+        }
+    }
+
+    public void testRepeatedStringsMakeItSmallerThanJson() throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+            tasks.add(new Task("Read 20 pages", "Before dinner", LocalDate.of(2026, 1, 1).plusDays(i % 90),
+                    5, "child" + i % 5));
+        int json = DataManager.createGson().toJson(tasks).getBytes(StandardCharsets.UTF_8).length;
+        assertTrue(encodeTasks(tasks).length * 3 < json);
+    }
+
+    public void testRejectsOtherFiles() throws IOException {
+        ByteArrayOutputStream wishes = new ByteArrayOutputStream();
+        BinaryCodec.writeWishes(wishes, List.of());
+        try {
+            BinaryCodec.readTasks(new ByteArrayInputStream(wishes.toByteArray()));
+            fail("a wish file read as tasks");
+        } catch (IOException expected) { }
+        try {
+            BinaryCodec.readTasks(new ByteArrayInputStream("[]".getBytes(StandardCharsets.UTF_8)));
+            fail("JSON read as binary");
+        } catch (IOException expected) { }
+    }
+
+    private static void assertSameTask(Task expected, Task actual) {
+        assertEquals(expected.getTaskId(), actual.getTaskId());
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getDueDate(), actual.getDueDate());
+        assertEquals(expected.getPoints(), actual.getPoints());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getAssignedToId(), actual.getAssignedToId());
+        assertEquals(expected.getRating(), actual.getRating());
+        assertEquals(expected.getVersion(), actual.getVersion());
+    }
+}
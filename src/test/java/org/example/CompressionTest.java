@@ -0,0 +1,80 @@
+package org.example;
+
+import junit.framework.TestCase;
+import persistence.Compression;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+/** Round trips through each codec, suffix detection and parsing of the system property. */
+public class CompressionTest extends TestCase {
+
+    private static byte[] sample() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20_000; i++)
+            sb.append("{\"title\":\"Homework ").append(i % 17).append("\",\"assignedToId\":\"child1\"},");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    public void testRoundTripThroughEveryCodec() throws IOException {
+        byte[] data = sample();
+        for (Compression c : Compression.values()) {
+            ByteArrayOutputStream stored = new ByteArrayOutputStream();
+            try (OutputStream out = c.wrap(stored)) {
+                out.write(data);
+            }
+            if (c != Compression.NONE)
+                assertTrue(c + " compresses repetitive JSON", stored.size() < data.length / 5);
+            try (InputStream in = c.wrap(new ByteArrayInputStream(stored.toByteArray()))) {
+                assertTrue(c.toString(), Arrays.equals(data, in.readAllBytes()));
+            }
+        }
+    }
+
+    public void testClosingTheWrapperLeavesTheFileStreamOpen() throws IOException {
+        for (Compression c : Compression.values()) {
+            boolean[] closed = {false};
+            ByteArrayOutputStream target = new ByteArrayOutputStream() {
+                @Override
+                public void close() { closed[0] = true; }
+            };
+            OutputStream out = c.wrap(target);
+            out.write(1);
+            out.close();
+            out.close(); // a second close is harmless
+            assertFalse(c.toString(), closed[0]);
+            assertTrue(c.toString(), target.size() > 0);
+        }
+    }
+
+    public void testStoredFormIsJudgedBySuffix() {
+        File plain = new File("data", "tasks.json");
+        for (Compression c : Compression.values())
+            assertEquals(c, Compression.of(c.apply(plain)));
+    }
+
+    public void testParseIgnoresCaseAndDefaultLocale() {
+        Locale previous = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            assertEquals(Compression.GZIP, Compression.parse("gzip"));
+            assertEquals(Compression.DEFLATE, Compression.parse(" Deflate "));
+            assertEquals(Compression.NONE, Compression.parse("none"));
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    public void testParseFallsBackToNone() {
+        assertEquals(Compression.NONE, Compression.parse(null));
+        assertEquals(Compression.NONE, Compression.parse("  "));
+        assertEquals(Compression.NONE, Compression.parse("zip"));
+    }
+}
@@ -0,0 +1,106 @@
+package org.example;
+
+import junit.framework.TestCase;
+import model.Child;
+import model.Task;
+import persistence.DataManager;
+import persistence.DataRepository;
+import persistence.Durability;
+import persistence.StorageFormat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/** Write-behind: changes are visible at once and reach the disk on flush, on a timer or on close. */
+public class DataRepositoryTest extends TestCase {
+
+    private File dir;
+    private final List<DataRepository> opened = new ArrayList<>();
+
+    protected void setUp() throws IOException {
+        dir = Files.createTempDirectory("kidtask-repository").toFile();
+    }
+
+    protected void tearDown() throws IOException {
+        for (DataRepository r : opened) r.close();
+        try (Stream<Path> files = Files.walk(dir.toPath())) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    private DataRepository open(long flushIntervalMs) {
+        DataRepository r = new DataRepository(new DataManager(dir, StorageFormat.JSON),
+                flushIntervalMs, 1000, 5).load();
+        opened.add(r);
+        return r;
+    }
+
+    public void testBufferedChangeIsWrittenOnFlush() {
+        DataRepository repository = open(3_600_000);
+        Task t = new Task("Homework", "Math", LocalDate.now(), 10, "child1");
+        repository.addTask(t, Durability.BUFFERED);
+
+        assertSame(t, repository.findTask(t.getTaskId()));
+        assertTrue(repository.isDirty());
+        assertNull("not on disk yet", open(3_600_000).findTask(t.getTaskId()));
+
+        repository.flush();
+        assertFalse(repository.isDirty());
+        assertEquals("Homework", open(3_600_000).findTask(t.getTaskId()).getTitle());
+    }
+
+    public void testBufferedChangeIsWrittenByTheBackgroundWriter() throws InterruptedException {
+        DataRepository repository = open(20);
+        repository.addTask(new Task("Homework", "Math", LocalDate.now(), 10, "child1"), Durability.BUFFERED);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (repository.isDirty() && System.currentTimeMillis() < deadline) Thread.sleep(10);
+        assertFalse(repository.isDirty());
+    }
+
+    public void testCloseWritesWhatIsLeft() {
+        DataRepository repository = open(3_600_000);
+        Child child = new Child("child1", "ayse@example.com", "1234");
+        repository.addUser(child, Durability.BUFFERED);
+        repository.addPoints(child, 15, Durability.BUFFERED);
+        repository.close();
+        opened.remove(repository);
+
+        Child reloaded = (Child) open(3_600_000).findUser("child1");
+        assertEquals(15, reloaded.getTotalPoints());
+    }
+
+    public void testApprovalAndCreditAreWrittenTogether() {
+        DataRepository repository = open(3_600_000);
+        repository.addUser(new Child("child1", "ayse@example.com", "1234"), Durability.SYNC);
+        Task t = new Task("Homework", "Math", LocalDate.now(), 10, "child1");
+        repository.addTask(t, Durability.SYNC);
+        repository.setTaskStatus(t, Task.Status.COMPLETED, Durability.SYNC);
+
+        assertTrue(repository.approveTask(t, Task.Status.COMPLETED, 4, Durability.SYNC));
+        assertFalse(repository.isDirty());
+        assertFalse(repository.approveTask(t, Task.Status.COMPLETED, 4, Durability.SYNC));
+
+        DataRepository reloaded = open(3_600_000);
+        assertEquals(Task.Status.APPROVED, reloaded.findTask(t.getTaskId()).getStatus());
+        assertEquals(4, reloaded.findTask(t.getTaskId()).getRating());
+        assertEquals(10, ((Child) reloaded.findUser("child1")).getTotalPoints());
+    }
+
+    public void testSyncChangeIsOnDiskWhenItReturns() {
+        DataRepository repository = open(3_600_000);
+        Task t = new Task("Homework", "Math", LocalDate.now(), 10, "child1");
+        repository.addTask(t, Durability.SYNC);
+        repository.setTaskStatus(t, Task.Status.COMPLETED, Durability.SYNC);
+
+        assertFalse(repository.isDirty());
+        assertEquals(Task.Status.COMPLETED, open(3_600_000).findTask(t.getTaskId()).getStatus());
+    }
+}
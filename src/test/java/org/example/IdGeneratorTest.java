@@ -0,0 +1,68 @@
+package org.example;
+
+import junit.framework.TestCase;
+import model.IdGenerator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/** Ids are version-7 UUIDs that sort by creation time, unique across threads. */
+public class IdGeneratorTest extends TestCase {
+
+    public void testIdsIncreaseAsUuidsAndAsText() {
+        List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) uuids.add(IdGenerator.nextUuid());
+        for (int i = 1; i < uuids.size(); i++) {
+            // time and counter live in the high bits, compared unsigned
+            assertTrue(Long.compareUnsigned(uuids.get(i - 1).getMostSignificantBits(),
+                    uuids.get(i).getMostSignificantBits()) < 0);
+            assertTrue(uuids.get(i - 1).toString().compareTo(uuids.get(i).toString()) < 0);
+        }
+    }
+
+    public void testLayoutIsVersion7WithTheCurrentTime() {
+        long before = System.currentTimeMillis();
+        UUID id = IdGenerator.nextUuid();
+        long after = System.currentTimeMillis();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        long millis = id.getMostSignificantBits() >>> 16;
+        assertTrue(millis >= before && millis <= after + 1);
+    }
+
+    public void testUniqueAcrossThreads() throws InterruptedException {
+        ConcurrentLinkedQueue<String> ids = new ConcurrentLinkedQueue<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                List<String> mine = new ArrayList<>();
+                for (int i = 0; i < 10_000; i++) mine.add(IdGenerator.nextId());
+                List<String> sorted = new ArrayList<>(mine);
+                Collections.sort(sorted);
+                if (sorted.equals(mine)) ids.addAll(mine);
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) thread.join();
+
+        assertEquals("every thread saw increasing ids", 80_000, ids.size());
+        assertEquals(80_000, new HashSet<>(ids).size());
+    }
+
+    public void testParseAcceptsOnlyCanonicalUuids() {
+        String id = IdGenerator.nextId();
+        assertEquals(id, IdGenerator.parse(id).toString());
+        assertNull(IdGenerator.parse(id.toUpperCase(Locale.ROOT)));
+        assertNull(IdGenerator.parse("child1"));
+        assertNull(IdGenerator.parse(null));
+        assertEquals("legacy-1", IdGenerator.key("legacy-1"));
+        assertEquals(UUID.fromString(id), IdGenerator.key(id));
+    }
+}
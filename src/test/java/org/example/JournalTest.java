@@ -0,0 +1,202 @@
+package org.example;
+
+import com.google.gson.JsonObject;
+import junit.framework.TestCase;
+import model.Task;
+import persistence.DataManager;
+import persistence.DataRepository;
+import persistence.Durability;
+import persistence.Journal;
+import persistence.StorageFormat;
+import persistence.TaskQuery;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Journal replay after a crash, recovery from a snapshot plus the journal
+ * written after it, and how unwritten patches for one record are merged.
+ */
+public class JournalTest extends TestCase {
+
+    private File dir;
+    private final List<DataRepository> opened = new ArrayList<>();
+
+    protected void setUp() throws IOException {
+        dir = Files.createTempDirectory("kidtask-journal").toFile();
+    }
+
+    protected void tearDown() throws IOException {
+        for (DataRepository r : opened) r.close();
+        try (Stream<Path> files = Files.walk(dir.toPath())) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    /** A repository that never flushes or snapshots on its own. */
+    private DataRepository open(int snapshotEvery) {
+        DataRepository r = new DataRepository(new DataManager(dir, StorageFormat.JSON),
+                3_600_000, snapshotEvery, 5).load();
+        opened.add(r);
+        return r;
+    }
+
+    private void appendRaw(String text) throws IOException {
+        Files.write(new File(dir, "journal.log").toPath(), text.getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+    }
+
+    public void testTornLastLineIsSkippedOnReplay() throws IOException {
+        DataRepository first = open(1000);
+        Task t = new Task("Homework", "Math", LocalDate.now(), 10, "child1");
+        first.addTask(t, Durability.SYNC);
+        first.setTaskStatus(t, Task.Status.COMPLETED, Durability.SYNC);
+        appendRaw("{\"type\":\"TASK\",\"id\":\"" + t.getTaskId() + "\",\"taskStatus\":\"APPR");
+
+        DataRepository replayed = open(1000);
+        assertEquals(1, replayed.getTasks().size());
+        assertEquals(Task.Status.COMPLETED, replayed.findTask(t.getTaskId()).getStatus());
+    }
+
+    public void testAppendAfterTornLineSurvivesReplay() throws IOException {
+        DataRepository first = open(1000);
+        first.addTask(new Task("Homework", "Math", LocalDate.now(), 10, "child1"), Durability.SYNC);
+        appendRaw("{\"type\":\"TASK\",\"id\":\"torn");
+
+        DataRepository second = open(1000);
+        Task later = new Task("Piano", "Scales", LocalDate.now(), 5, "child1");
+        second.addTask(later, Durability.SYNC);
+
+        DataRepository replayed = open(1000);
+        assertEquals(2, replayed.getTasks().size());
+        assertNotNull(replayed.findTask(later.getTaskId()));
+    }
+
+    public void testUnreadableLineDoesNotStopReplay() throws IOException {
+        DataRepository first = open(1000);
+        first.addTask(new Task("Homework", "Math", LocalDate.now(), 10, "child1"), Durability.SYNC);
+        appendRaw("not json at all\n");
+        first.flush();
+
+        DataRepository second = open(1000);
+        second.addTask(new Task("Piano", "Scales", LocalDate.now(), 5, "child1"), Durability.SYNC);
+
+        assertEquals(2, open(1000).getTasks().size());
+    }
+
+    public void testStreamingQuerySeesJournalTail() {
+        DataRepository first = open(3);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Task t = new Task("Task " + i, "", LocalDate.now(), i, "child1");
+            tasks.add(t);
+            first.addTask(t, Durability.SYNC);
+        }
+        first.flush(); // snapshot holds all three as pending
+        DataRepository second = open(1000);
+        second.setTaskStatus(second.findTask(tasks.get(0).getTaskId()), Task.Status.COMPLETED, Durability.SYNC);
+        Task rejected = second.findTask(tasks.get(1).getTaskId());
+        second.setTaskStatus(rejected, Task.Status.APPROVED, Durability.SYNC);
+        second.setTaskStatus(rejected, Task.Status.REJECTED, Durability.SYNC);
+        Task late = new Task("Task 3", "", LocalDate.now(), 3, "child1");
+        second.addTask(late, Durability.SYNC);
+        assertEquals(3, new DataManager(dir, StorageFormat.JSON).loadSnapshotSeq());
+
+        DataManager reader = new DataManager(dir, StorageFormat.JSON);
+        assertEquals(Set.of(tasks.get(2).getTaskId(), late.getTaskId()), ids(reader.queryTasks(
+                TaskQuery.all().assignedTo("child1").withStatus(Task.Status.PENDING))));
+        List<Task> found = reader.queryTasks(TaskQuery.all().withStatus(Task.Status.REJECTED));
+        assertEquals(Set.of(rejected.getTaskId()), ids(found));
+        assertEquals(rejected.getVersion(), found.get(0).getVersion());
+        assertEquals(Set.of(tasks.get(0).getTaskId()), ids(reader.queryTasks(
+                TaskQuery.all().withStatus(Task.Status.COMPLETED))));
+    }
+
+    private static Set<String> ids(List<Task> tasks) {
+        Set<String> ids = new HashSet<>();
+        for (Task t : tasks) ids.add(t.getTaskId());
+        return ids;
+    }
+
+    public void testRecoversFromSnapshotPlusJournalTail() throws IOException {
+        DataRepository first = open(3);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Task t = new Task("Task " + i, "", LocalDate.now(), i, "child1");
+            tasks.add(t);
+            first.addTask(t, Durability.SYNC);
+        }
+        first.flush(); // waits for the snapshot the third entry triggered
+        assertEquals(3, new DataManager(dir, StorageFormat.JSON).loadSnapshotSeq());
+
+        first.setTaskStatus(tasks.get(0), Task.Status.COMPLETED, Durability.SYNC);
+        Task late = new Task("Task 3", "", LocalDate.now(), 3, "child1");
+        first.addTask(late, Durability.SYNC);
+        first.flush();
+        assertEquals("tail not yet compacted", 3, new DataManager(dir, StorageFormat.JSON).loadSnapshotSeq());
+        assertTrue(new File(dir, "journal.log").length() > 0);
+
+        DataRepository replayed = open(3);
+        assertEquals(4, replayed.getTasks().size());
+        assertEquals(Task.Status.COMPLETED, replayed.findTask(tasks.get(0).getTaskId()).getStatus());
+        assertEquals(Task.Status.PENDING, replayed.findTask(tasks.get(1).getTaskId()).getStatus());
+        assertNotNull(replayed.findTask(late.getTaskId()));
+    }
+
+    public void testMergeKeepsEarliestBaseVersionAndLatestFields() {
+        JsonObject into = patch("t1", 3);
+        into.addProperty("taskStatus", "COMPLETED");
+        into.addProperty("version", 4);
+        JsonObject later = patch("t1", 4);
+        later.addProperty("taskStatus", "APPROVED");
+        later.addProperty("rating", 5);
+        later.addProperty("version", 5);
+        later.addProperty("seq", 99);
+
+        Journal.merge(into, later);
+
+        assertEquals(3, into.get("baseVersion").getAsInt());
+        assertEquals(5, into.get("version").getAsInt());
+        assertEquals("APPROVED", into.get("taskStatus").getAsString());
+        assertEquals(5, into.get("rating").getAsInt());
+        assertFalse(into.has("seq"));
+    }
+
+    public void testMergeFullRecordReplacesEarlierPatch() {
+        JsonObject into = patch("t1", 1);
+        into.addProperty("taskStatus", "COMPLETED");
+        into.addProperty("rating", 2);
+        JsonObject later = patch("t1", 2);
+        JsonObject task = new JsonObject();
+        task.addProperty("taskId", "t1");
+        task.addProperty("title", "Homework");
+        later.add("task", task);
+
+        Journal.merge(into, later);
+
+        assertEquals(1, into.get("baseVersion").getAsInt());
+        assertEquals("t1", into.get("id").getAsString());
+        assertFalse(into.has("taskStatus"));
+        assertFalse(into.has("rating"));
+        assertEquals("Homework", into.getAsJsonObject("task").get("title").getAsString());
+    }
+
+    private static JsonObject patch(String id, int baseVersion) {
+        JsonObject o = new JsonObject();
+        o.addProperty("type", "TASK");
+        o.addProperty("id", id);
+        o.addProperty("baseVersion", baseVersion);
+        return o;
+    }
+}
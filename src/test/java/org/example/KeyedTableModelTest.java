@@ -0,0 +1,98 @@
+package org.example;
+
+import junit.framework.TestCase;
+import ui.panels.KeyedTableModel;
+
+import javax.swing.event.TableModelEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+/** A reload fires only the row events for what changed against the rows on screen. */
+public class KeyedTableModelTest extends TestCase {
+
+    private static class Row {
+        final String id;
+        String title;
+
+        Row(String id, String title) {
+            this.id = id;
+            this.title = title;
+        }
+    }
+
+    private static class Model extends KeyedTableModel<Row> {
+        Model() { super(r -> r.id, "Id", "Title"); }
+
+        protected Object value(Row r, int c) { return c == 0 ? r.id : r.title; }
+    }
+
+    private final Model model = new Model();
+    private final List<String> events = new ArrayList<>();
+
+    protected void setUp() {
+        model.addTableModelListener(e -> events.add(describe(e)));
+    }
+
+    private static String describe(TableModelEvent e) {
+        if (e.getLastRow() == Integer.MAX_VALUE) return "all";
+        String type = switch (e.getType()) {
+            case TableModelEvent.INSERT -> "insert";
+            case TableModelEvent.DELETE -> "delete";
+            default -> "update";
+        };
+        return type + " " + e.getFirstRow() + "-" + e.getLastRow();
+    }
+
+    private static List<Row> rows(String... ids) {
+        List<Row> rows = new ArrayList<>();
+        for (String id : ids) rows.add(new Row(id, "Task " + id));
+        return rows;
+    }
+
+    private List<String> shown() {
+        List<String> ids = new ArrayList<>();
+        for (int r = 0; r < model.getRowCount(); r++) ids.add((String) model.getValueAt(r, 0));
+        return ids;
+    }
+
+    public void testUnchangedReloadFiresNothing() {
+        model.update(rows("a", "b", "c"));
+        events.clear();
+        model.update(rows("a", "b", "c"));
+        assertEquals(List.of(), events);
+    }
+
+    public void testRemovalsAndInsertionsInRuns() {
+        model.update(rows("a", "b", "c", "d", "e"));
+        events.clear();
+
+        model.update(rows("a", "x", "y", "d"));
+
+        assertEquals(List.of("delete 4-4", "delete 1-2", "insert 1-2"), events);
+        assertEquals(List.of("a", "x", "y", "d"), shown());
+    }
+
+    public void testChangedValuesUpdateOnlyThoseRows() {
+        List<Row> rows = rows("a", "b", "c", "d");
+        model.update(rows);
+        events.clear();
+
+        rows.get(1).title = "Renamed";
+        rows.get(2).title = "Renamed too";
+        model.update(rows);
+
+        assertEquals(List.of("update 1-2"), events);
+        assertEquals("Renamed", model.getValueAt(1, 1));
+        assertSame(rows.get(3), model.getAt(3));
+    }
+
+    public void testReorderReloadsTheTable() {
+        model.update(rows("a", "b", "c"));
+        events.clear();
+
+        model.update(rows("c", "a", "b"));
+
+        assertEquals(List.of("all"), events);
+        assertEquals(List.of("c", "a", "b"), shown());
+    }
+}
@@ -0,0 +1,171 @@
+package org.example;
+
+import junit.framework.TestCase;
+import model.Child;
+import model.Task;
+import persistence.DataManager;
+import persistence.DataRepository;
+import persistence.Durability;
+import persistence.StorageFormat;
+import persistence.TaskArchive;
+import persistence.TaskQuery;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/** Two repositories writing to one data directory, as two KidTask instances would. */
+public class SharedDataDirTest extends TestCase {
+
+    private File dir;
+    private final List<DataRepository> opened = new ArrayList<>();
+
+    protected void setUp() throws IOException {
+        dir = Files.createTempDirectory("kidtask-shared").toFile();
+    }
+
+    protected void tearDown() throws IOException {
+        for (DataRepository r : opened) r.close();
+        try (Stream<Path> files = Files.walk(dir.toPath())) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    private DataRepository open() {
+        DataRepository r = new DataRepository(new DataManager(dir, StorageFormat.JSON),
+                3_600_000, 1000, 5).load();
+        opened.add(r);
+        return r;
+    }
+
+    public void testCompareAndSetLosesToOtherInstance() {
+        DataRepository first = open();
+        Task t = new Task("Homework", "Math", LocalDate.now(), 10, "child1");
+        first.addTask(t, Durability.SYNC);
+        first.setTaskStatus(t, Task.Status.COMPLETED, Durability.SYNC);
+        DataRepository second = open();
+
+        assertTrue(first.compareAndSetTaskStatus(first.findTask(t.getTaskId()),
+                Task.Status.COMPLETED, Task.Status.APPROVED, Durability.SYNC));
+        // second has not seen the approval yet; its write catches up and finds it
+        assertFalse(second.compareAndSetTaskStatus(second.findTask(t.getTaskId()),
+                Task.Status.COMPLETED, Task.Status.REJECTED, Durability.SYNC));
+
+        assertEquals(Task.Status.APPROVED, second.findTask(t.getTaskId()).getStatus());
+        first.flush();
+        assertEquals(Task.Status.APPROVED, first.findTask(t.getTaskId()).getStatus());
+        assertEquals(Task.Status.APPROVED, open().findTask(t.getTaskId()).getStatus());
+    }
+
+    public void testConflictingPatchIsRerunOnNewerRecord() {
+        DataRepository first = open();
+        Task t = new Task("Homework", "Math", LocalDate.now(), 10, "child1");
+        first.addTask(t, Durability.SYNC);
+        DataRepository second = open();
+
+        first.setTaskStatus(first.findTask(t.getTaskId()), Task.Status.COMPLETED, Durability.SYNC);
+        second.rateTask(second.findTask(t.getTaskId()), 4, Durability.SYNC);
+        first.flush();
+
+        for (DataRepository r : List.of(first, second, open())) {
+            Task seen = r.findTask(t.getTaskId());
+            assertEquals(Task.Status.COMPLETED, seen.getStatus());
+            assertEquals(4, seen.getRating());
+        }
+    }
+
+    public void testTwoInstancesArchiveEachTaskOnce() throws Exception {
+        DataRepository first = open();
+        for (int i = 0; i < 7; i++) {
+            Task t = new Task("Old " + i, "", LocalDate.now().minusDays(60), 5, "child1");
+            first.addTask(t, Durability.BUFFERED);
+            first.setTaskStatus(t, Task.Status.APPROVED, Durability.BUFFERED);
+        }
+        first.flush();
+        DataRepository second = open();
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> a = pool.submit(() -> first.archiveFinished(30));
+            Future<Integer> b = pool.submit(() -> second.archiveFinished(30));
+            assertEquals(7, a.get() + b.get());
+        } finally {
+            pool.shutdown();
+        }
+
+        for (int i = 0; i < 3; i++) {
+            Task t = new Task("Older " + i, "", LocalDate.now().minusDays(90), 5, "child1");
+            second.addTask(t, Durability.BUFFERED);
+            second.setTaskStatus(t, Task.Status.REJECTED, Durability.BUFFERED);
+        }
+        assertEquals(3, second.archiveFinished(30));
+        first.flush();
+
+        for (DataRepository r : List.of(first, second, open())) {
+            assertEquals(0, r.getTasks().size());
+            assertEquals(10, r.taskStats().getTotal());
+            assertEquals(7, r.taskStats().getCount(Task.Status.APPROVED));
+            assertEquals(3, r.taskStats().getCount(Task.Status.REJECTED));
+            assertEquals(10, r.countTaskHistory(TaskQuery.all()));
+        }
+        String[] segments = new File(dir, "archive").list((d, name) -> name.startsWith("segment-"));
+        assertEquals(2, segments.length);
+    }
+
+    public void testArchiveCommittedBeforeCrashIsNotCountedTwice() {
+        DataRepository first = open();
+        for (int i = 0; i < 4; i++) {
+            Task t = new Task("Old " + i, "", LocalDate.now().minusDays(60), 5, "child1");
+            first.addTask(t, Durability.BUFFERED);
+            first.setTaskStatus(t, Task.Status.APPROVED, Durability.BUFFERED);
+        }
+        first.flush();
+
+        // an archiver that committed its segment, then died before journaling the tasks as archived
+        TaskArchive crashed = new DataManager(dir, StorageFormat.JSON).getArchive();
+        List<Task> finished = new ArrayList<>(first.getTasks());
+        assertTrue(crashed.commit(crashed.writeSegment(finished), finished));
+
+        DataRepository restarted = open();
+        assertEquals(0, restarted.getTasks().size());
+        assertEquals(4, restarted.taskStats().getTotal());
+
+        assertEquals(4, first.archiveFinished(30));
+        for (DataRepository r : List.of(first, restarted, open())) {
+            assertEquals(0, r.getTasks().size());
+            assertEquals(4, r.taskStats().getTotal());
+            assertEquals(4, r.countTaskHistory(TaskQuery.all()));
+        }
+        String[] segments = new File(dir, "archive").list((d, name) -> name.startsWith("segment-"));
+        assertEquals(1, segments.length);
+    }
+
+    public void testApprovalRefusedOnCatchUpCreditsNoPoints() {
+        DataRepository first = open();
+        first.addUser(new Child("child1", "ayse@example.com", "1234"), Durability.SYNC);
+        Task t = new Task("Homework", "Math", LocalDate.now(), 10, "child1");
+        first.addTask(t, Durability.SYNC);
+        first.setTaskStatus(t, Task.Status.COMPLETED, Durability.SYNC);
+        DataRepository second = open();
+
+        // second's approval and credit are queued but unwritten when first approves
+        assertTrue(second.approveTask(second.findTask(t.getTaskId()), Task.Status.COMPLETED, 3, Durability.BUFFERED));
+        assertEquals(10, ((Child) second.findUser("child1")).getTotalPoints());
+        assertTrue(first.approveTask(first.findTask(t.getTaskId()), Task.Status.COMPLETED, 5, Durability.SYNC));
+        second.flush();
+
+        for (DataRepository r : List.of(first, second, open())) {
+            assertEquals(5, r.findTask(t.getTaskId()).getRating());
+            assertEquals(10, ((Child) r.findUser("child1")).getTotalPoints());
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.example;
+
+import junit.framework.TestCase;
+import model.Task;
+import persistence.TaskColumns;
+import persistence.TaskStats;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/** Aggregates over the column arrays match the same aggregates over the Task objects. */
+public class TaskColumnsTest extends TestCase {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 6, 1);
+
+    private static Task task(String id, String child, Task.Status status, int points, int rating, LocalDate due) {
+        return new Task(id, "Task " + id, "", due, points, status, child, rating);
+    }
+
+    public void testStatsMatchTheTaskObjectsAfterChangesAndRemovals() {
+        TaskColumns columns = new TaskColumns();
+        Map<String, Task> live = new HashMap<>();
+        Random rnd = new Random(7);
+        Task.Status[] statuses = Task.Status.values();
+        for (int i = 0; i < 3000; i++) {
+            String id = "t" + rnd.nextInt(1000);
+            if (rnd.nextInt(4) == 0 && live.containsKey(id)) {
+                columns.remove(live.remove(id));
+                continue;
+            }
+            Task t = task(id, rnd.nextInt(10) == 0 ? null : "child" + rnd.nextInt(5),
+                    rnd.nextInt(20) == 0 ? null : statuses[rnd.nextInt(statuses.length)],
+                    rnd.nextInt(50), rnd.nextInt(6), TODAY.plusDays(rnd.nextInt(30) - 15));
+            live.put(id, t);
+            columns.put(t);
+        }
+
+        TaskStats expected = new TaskStats();
+        Map<String, TaskStats> expectedByChild = new HashMap<>();
+        for (Task t : live.values()) {
+            expected.add(t);
+            if (t.getAssignedToId() != null)
+                expectedByChild.computeIfAbsent(t.getAssignedToId(), k -> new TaskStats()).add(t);
+        }
+        expectedByChild.values().removeIf(s -> s.getTotal() == 0 && s.getRatedCount() == 0);
+
+        assertEquals(live.size(), columns.size());
+        assertSameStats(expected, columns.stats());
+        Map<String, TaskStats> byChild = columns.statsByAssignee();
+        assertEquals(expectedByChild.keySet(), byChild.keySet());
+        for (String child : byChild.keySet()) assertSameStats(expectedByChild.get(child), byChild.get(child));
+    }
+
+    public void testPointsPerStatus() {
+        TaskColumns columns = new TaskColumns();
+        columns.put(task("a", "child1", Task.Status.APPROVED, 10, 5, TODAY));
+        columns.put(task("b", "child1", Task.Status.APPROVED, 15, 4, TODAY));
+        columns.put(task("c", "child1", Task.Status.COMPLETED, 7, 0, TODAY));
+        columns.put(task("d", "child2", Task.Status.APPROVED, 3, 3, TODAY));
+
+        assertEquals(28, columns.stats().getPoints(Task.Status.APPROVED));
+        assertEquals(25, columns.statsByAssignee().get("child1").getPoints(Task.Status.APPROVED));
+        assertEquals(7, columns.statsByAssignee().get("child1").getPoints(Task.Status.COMPLETED));
+
+        columns.put(task("c", "child1", Task.Status.APPROVED, 7, 2, TODAY));
+        assertEquals(32, columns.statsByAssignee().get("child1").getPoints(Task.Status.APPROVED));
+    }
+
+    public void testPendingTasksByDueDate() {
+        TaskColumns columns = new TaskColumns();
+        List<Task> tasks = new ArrayList<>(List.of(
+                task("a", "child1", Task.Status.PENDING, 5, 0, TODAY.minusDays(1)),
+                task("b", "child1", Task.Status.PENDING, 5, 0, TODAY),
+                task("c", "child1", Task.Status.PENDING, 5, 0, TODAY.plusDays(7)),
+                task("d", "child1", Task.Status.PENDING, 5, 0, TODAY.plusDays(8)),
+                task("e", "child1", Task.Status.PENDING, 5, 0, null),
+                task("f", "child1", Task.Status.COMPLETED, 5, 0, TODAY.minusDays(3)),
+                task("g", "child2", Task.Status.APPROVED, 5, 0, TODAY)));
+        for (Task t : tasks) columns.put(t);
+
+        Map<String, TaskColumns.DueCounts> due = columns.pendingByDueDate(TODAY, 7);
+
+        assertEquals(Map.of("child1", new TaskColumns.DueCounts(1, 2, 2)), due);
+        columns.remove(tasks.get(0));
+        assertEquals(new TaskColumns.DueCounts(0, 2, 2), columns.pendingByDueDate(TODAY, 7).get("child1"));
+    }
+
+    private static void assertSameStats(TaskStats expected, TaskStats actual) {
+        for (Task.Status s : Task.Status.values()) {
+            assertEquals(s.toString(), expected.getCount(s), actual.getCount(s));
+            assertEquals(s.toString(), expected.getPoints(s), actual.getPoints(s));
+        }
+        assertEquals(expected.getRatingSum(), actual.getRatingSum());
+        assertEquals(expected.getRatedCount(), actual.getRatedCount());
+    }
+}
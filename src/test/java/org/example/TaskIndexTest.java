@@ -0,0 +1,117 @@
+package org.example;
+
+import junit.framework.TestCase;
+import model.Task;
+import persistence.DataManager;
+import persistence.DataRepository;
+import persistence.StorageFormat;
+import persistence.TaskIndex;
+import persistence.TaskQuery;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/** The id, assignee, status and due-date indexes stay in step with adds, removes and status changes. */
+public class TaskIndexTest extends TestCase {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 5, 10);
+
+    private static Task task(String id, String child, Task.Status status, LocalDate due) {
+        return new Task(id, "Title " + id, "", due, 5, status, child, 0);
+    }
+
+    public void testLookupsByIdAssigneeStatusAndDueDate() {
+        TaskIndex index = new TaskIndex();
+        Task a = task("a", "child1", Task.Status.PENDING, DAY);
+        Task b = task("b", "child1", Task.Status.COMPLETED, DAY.plusDays(3));
+        Task c = task("c", "child2", Task.Status.PENDING, DAY.plusDays(10));
+        index.add(a);
+        index.add(b);
+        index.add(c);
+
+        assertSame(b, index.get("b"));
+        assertEquals(Set.of(a, b), index.byAssignee("child1"));
+        assertEquals(Set.of(a, c), index.byStatus(Task.Status.PENDING));
+        assertEquals(List.of(a, b), index.dueBetween(DAY, DAY.plusDays(5)));
+        assertEquals(List.of(c), index.dueBetween(DAY.plusDays(4), null));
+    }
+
+    public void testStatusChangeMovesTheTask() {
+        TaskIndex index = new TaskIndex();
+        Task a = task("a", "child1", Task.Status.PENDING, DAY);
+        index.add(a);
+
+        index.setStatus(a, Task.Status.COMPLETED);
+
+        assertEquals(Task.Status.COMPLETED, a.getStatus());
+        assertTrue(index.byStatus(Task.Status.PENDING).isEmpty());
+        assertEquals(Set.of(a), index.byStatus(Task.Status.COMPLETED));
+    }
+
+    public void testRemoveAndReplaceUnindexTheOldTask() {
+        TaskIndex index = new TaskIndex();
+        index.add(task("a", "child1", Task.Status.PENDING, DAY));
+        Task replacement = task("a", "child2", Task.Status.APPROVED, DAY.plusDays(1));
+        index.add(replacement);
+
+        assertEquals(1, index.size());
+        assertTrue(index.byAssignee("child1").isEmpty());
+        assertTrue(index.byStatus(Task.Status.PENDING).isEmpty());
+        assertEquals(List.of(replacement), index.dueBetween(null, null));
+
+        assertSame(replacement, index.remove("a"));
+        assertEquals(0, index.size());
+        assertTrue(index.byAssignee("child2").isEmpty());
+        assertTrue(index.dueBetween(null, null).isEmpty());
+    }
+
+    public void testTaskWithoutStatusOrDueDate() {
+        TaskIndex index = new TaskIndex();
+        Task t = task("a", "child1", null, null);
+        index.add(t);
+
+        assertSame(t, index.get("a"));
+        assertTrue(index.byStatus(Task.Status.PENDING).isEmpty());
+        assertTrue(index.dueBetween(null, null).isEmpty());
+
+        index.setStatus(t, Task.Status.PENDING);
+        assertEquals(Set.of(t), index.byStatus(Task.Status.PENDING));
+        index.setStatus(t, null);
+        assertTrue(index.byStatus(Task.Status.PENDING).isEmpty());
+        assertSame(t, index.remove("a"));
+    }
+
+    public void testCandidatesAreFilteredToTheQuery() {
+        TaskIndex index = new TaskIndex();
+        for (int i = 0; i < 20; i++)
+            index.add(task("t" + i, "child" + (i % 4), Task.Status.values()[i % 4], DAY.plusDays(i)));
+        TaskQuery q = TaskQuery.all().assignedTo("child1").withStatus(Task.Status.COMPLETED);
+
+        Set<String> matching = new HashSet<>();
+        for (Task t : index.candidates(q)) if (q.matches(t)) matching.add(t.getTaskId());
+        assertEquals(Set.of("t1", "t5", "t9", "t13", "t17"), matching);
+    }
+
+    public void testRepositoryLoadsTasksWithoutStatus() throws IOException {
+        File dir = Files.createTempDirectory("kidtask-index").toFile();
+        try {
+            Files.writeString(new File(dir, "tasks.json").toPath(),
+                    "[{\"taskId\":\"old\",\"title\":\"Homework\",\"points\":5,\"assignedToId\":\"child1\"}]",
+                    StandardCharsets.UTF_8);
+            DataRepository repository = new DataRepository(new DataManager(dir, StorageFormat.JSON),
+                    3_600_000, 1000, 5).loadAsync().join();
+            assertNull(repository.findTask("old").getStatus());
+            assertEquals(1, repository.findTasks(TaskQuery.all()).size());
+            repository.close();
+        } finally {
+            for (File f : dir.listFiles()) f.delete();
+            dir.delete();
+        }
+    }
+}
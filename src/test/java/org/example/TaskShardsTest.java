@@ -0,0 +1,121 @@
+package org.example;
+
+import junit.framework.TestCase;
+import model.Task;
+import persistence.DataManager;
+import persistence.DataRepository;
+import persistence.Durability;
+import persistence.StorageFormat;
+import persistence.TaskQuery;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/** Tasks split into per-child shard files under data/tasks. */
+public class TaskShardsTest extends TestCase {
+
+    private static final int SHARDS = 4;
+
+    private File dir;
+
+    protected void setUp() throws IOException {
+        dir = Files.createTempDirectory("kidtask-shards").toFile();
+    }
+
+    protected void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir.toPath())) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    private static List<Task> tasks(int count) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+            tasks.add(new Task("Task " + i, "", LocalDate.of(2026, 3, 1), 5, "child" + i % 10));
+        return tasks;
+    }
+
+    private static Set<String> ids(List<Task> tasks) {
+        Set<String> ids = new HashSet<>();
+        for (Task t : tasks) ids.add(t.getTaskId());
+        return ids;
+    }
+
+    private File shard(int i) {
+        return new File(dir, String.format("tasks/shard-%03d.json", i));
+    }
+
+    public void testEachChildLivesInOneShard() {
+        DataManager dm = new DataManager(dir, StorageFormat.JSON, SHARDS);
+        List<Task> tasks = tasks(100);
+        assertTrue(dm.saveTasks(tasks));
+
+        for (int i = 0; i < SHARDS; i++) assertTrue(shard(i).exists());
+        assertEquals(ids(tasks), ids(new DataManager(dir, StorageFormat.JSON, SHARDS).loadTasks()));
+        for (int i = 0; i < 10; i++) {
+            int s = dm.shardOf("child" + i);
+            assertTrue(0 <= s && s < SHARDS);
+            assertEquals(s, dm.shardOf("child" + i));
+        }
+    }
+
+    public void testQueryForOneChildReadsOnlyItsShard() {
+        DataManager dm = new DataManager(dir, StorageFormat.JSON, SHARDS);
+        List<Task> tasks = tasks(100);
+        assertTrue(dm.saveTasks(tasks));
+        int own = dm.shardOf("child3");
+        for (int i = 0; i < SHARDS; i++)
+            if (i != own) assertTrue(shard(i).delete());
+
+        List<Task> found = dm.queryTasks(TaskQuery.all().assignedTo("child3"));
+        assertEquals(10, found.size());
+        for (Task t : found) assertEquals("child3", t.getAssignedToId());
+    }
+
+    public void testSingleFileIsSplitOnFirstShardedLoad() {
+        List<Task> tasks = tasks(50);
+        new DataManager(dir, StorageFormat.JSON).saveTasks(tasks);
+
+        assertEquals(ids(tasks), ids(new DataManager(dir, StorageFormat.JSON, SHARDS).loadTasks()));
+        assertTrue(new File(dir, "tasks/manifest.json").exists());
+        assertEquals(ids(tasks), ids(new DataManager(dir, StorageFormat.JSON, SHARDS).loadTasks()));
+    }
+
+    public void testChangedShardCountReshards() {
+        List<Task> tasks = tasks(60);
+        new DataManager(dir, StorageFormat.JSON, SHARDS).saveTasks(tasks);
+
+        assertEquals(ids(tasks), ids(new DataManager(dir, StorageFormat.JSON, 2).loadTasks()));
+        assertEquals(ids(tasks), ids(new DataManager(dir, StorageFormat.JSON, 2).loadTasks()));
+    }
+
+    public void testSnapshotRewritesOnlyChangedShards() {
+        List<Task> tasks = tasks(40);
+        new DataManager(dir, StorageFormat.JSON, SHARDS).saveTasks(tasks);
+        long old = System.currentTimeMillis() - 60_000;
+        for (int i = 0; i < SHARDS; i++) assertTrue(shard(i).setLastModified(old));
+
+        DataManager dm = new DataManager(dir, StorageFormat.JSON, SHARDS);
+        DataRepository repository = new DataRepository(dm, 3_600_000, 1, 5).load();
+        Task changed = repository.findTask(tasks.get(3).getTaskId());
+        repository.setTaskStatus(changed, Task.Status.COMPLETED, Durability.SYNC);
+        repository.close();
+
+        int dirty = dm.shardOf(changed.getAssignedToId());
+        for (int i = 0; i < SHARDS; i++)
+            assertEquals("shard " + i, i != dirty, shard(i).lastModified() == old);
+        Task reloaded = null;
+        for (Task t : new DataManager(dir, StorageFormat.JSON, SHARDS).loadTasks())
+            if (t.getTaskId().equals(changed.getTaskId())) reloaded = t;
+        assertEquals(Task.Status.COMPLETED, reloaded.getStatus());
+    }
+}
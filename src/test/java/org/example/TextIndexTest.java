@@ -0,0 +1,77 @@
+package org.example;
+
+import junit.framework.TestCase;
+import persistence.TextIndex;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+
+/** Word and prefix search, newest first, across removals and renumbering. */
+public class TextIndexTest extends TestCase {
+
+    private final TextIndex<String> index = new TextIndex<>(s -> s);
+
+    public void testEveryWordMustMatchAsAPrefix() {
+        index.put(1, "Piano practice 2026-05-17");
+        index.put(2, "Piano lesson");
+        index.put(3, "Practice spelling");
+
+        assertEquals(List.of("Piano practice 2026-05-17"), index.search("piano prac", 10));
+        assertEquals(List.of("Practice spelling", "Piano practice 2026-05-17"), index.search("PRACT", 10));
+        assertEquals(List.of("Piano practice 2026-05-17"), index.search("2026-05", 10));
+        assertTrue(index.search("piano guitar", 10).isEmpty());
+        assertTrue(index.search("  ", 10).isEmpty());
+    }
+
+    public void testNewestFirstWithLimitAndFilter() {
+        for (int i = 0; i < 10; i++) index.put(i, "Homework " + i);
+
+        assertEquals(List.of("Homework 9", "Homework 8", "Homework 7"), index.search("home", 3));
+        assertEquals(List.of("Homework 8", "Homework 6"),
+                index.search("homework", 2, s -> s.endsWith("6") || s.endsWith("8")));
+    }
+
+    public void testPutWithKnownKeyReplacesTheValueOnly() {
+        index.put("k", "Feed the cat");
+        index.put("k", "Feed the cat again");
+        assertEquals(1, index.size());
+        assertEquals(List.of("Feed the cat again"), index.search("cat", 10));
+    }
+
+    public void testRemovedDocumentsDisappearAndCompactionKeepsResults() {
+        List<String> live = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) index.put(i, "task" + i % 7 + " word" + i);
+        Random rnd = new Random(1);
+        Set<Integer> removed = new HashSet<>();
+        while (removed.size() < 4000) {
+            int key = rnd.nextInt(5000);
+            if (removed.add(key)) index.remove(key);
+        }
+        for (int i = 4999; i >= 0; i--)
+            if (!removed.contains(i) && i % 7 == 3) live.add("task3 word" + i);
+
+        assertEquals(1000, index.size());
+        assertEquals(live, index.search("task3", Integer.MAX_VALUE));
+        for (int key : removed)
+            for (String hit : index.search("word" + key, Integer.MAX_VALUE))
+                assertFalse(hit, hit.endsWith(" word" + key));
+
+        index.put(9999, "task3 newest");
+        assertEquals("task3 newest", index.search("task3", 1).get(0));
+    }
+
+    public void testInterruptCancelsTheSearch() {
+        for (int i = 0; i < 100; i++) index.put(i, "Homework " + i);
+        Thread.currentThread().interrupt();
+        try {
+            index.search("homework", 10);
+            fail("search ran although interrupted");
+        } catch (CancellationException expected) {
+            assertFalse(Thread.currentThread().isInterrupted());
+        }
+    }
+}
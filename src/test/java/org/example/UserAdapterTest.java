@@ -0,0 +1,54 @@
+package org.example;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import junit.framework.TestCase;
+import model.Child;
+import model.User;
+import persistence.DataManager;
+
+import java.util.List;
+
+/** Users are written without reflection and children come back as {@link Child} with their points. */
+public class UserAdapterTest extends TestCase {
+
+    private final Gson gson = DataManager.createGson();
+
+    private List<User> roundTrip(List<User> users) {
+        return gson.fromJson(gson.toJson(users), new TypeToken<List<User>>() { }.getType());
+    }
+
+    public void testChildIsRestoredWithPoints() {
+        Child child = new Child("child1", "child1@mail.com", "1234");
+        child.setTotalPoints(130);
+        child.setVersion(5);
+        User parent = new User("parent1", "parent1@mail.com", "abcd", User.Role.PARENT);
+
+        List<User> read = roundTrip(List.of(child, parent));
+
+        assertTrue(read.get(0) instanceof Child);
+        Child restored = (Child) read.get(0);
+        assertEquals("child1", restored.getUserId());
+        assertEquals("child1@mail.com", restored.getEmail());
+        assertEquals(130, restored.getTotalPoints());
+        assertEquals(child.getLevel(), restored.getLevel());
+        assertEquals(5, restored.getVersion());
+
+        assertFalse(read.get(1) instanceof Child);
+        assertEquals(User.Role.PARENT, read.get(1).getRole());
+        assertEquals("abcd", read.get(1).getPassword());
+    }
+
+    public void testReadsEntriesFromBeforeTheAdapter() {
+        String json = "[{\"userId\":\"child1\",\"email\":\"c@mail.com\",\"password\":\"1\",\"role\":\"CHILD\","
+                + "\"totalPoints\":40,\"level\":1,\"nickname\":\"ignored\"},"
+                + "{\"userId\":\"teacher1\",\"email\":null,\"password\":\"2\",\"role\":\"TEACHER\"}]";
+
+        List<User> read = gson.fromJson(json, new TypeToken<List<User>>() { }.getType());
+
+        assertEquals(40, ((Child) read.get(0)).getTotalPoints());
+        assertEquals(0, read.get(0).getVersion());
+        assertEquals(User.Role.TEACHER, read.get(1).getRole());
+        assertEquals("", read.get(1).getEmail());
+    }
+}